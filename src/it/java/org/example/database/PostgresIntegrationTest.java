@@ -0,0 +1,197 @@
+package org.example.database;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.config.DatabaseType;
+import org.example.config.StorageMode;
+import org.example.database.migration.Migration;
+import org.example.database.migration.MigrationRunner;
+import org.example.database.migration.Migrations;
+import org.example.database.slowlog.SlowQueryLog;
+import org.example.model.Category;
+import org.example.model.CategoryTotal;
+import org.example.model.PeriodTotals;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.example.repository.impl.AggregationRepositoryImpl;
+import org.example.repository.impl.CategoryRepositoryImpl;
+import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.impl.UserRepositoryImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Миграции и репозитории на PostgreSQL: на время теста запускается встраиваемый сервер,
+ * менеджер подключается к нему через системные свойства database.*
+ * Запуск: mvn -Ppostgres-it test
+ */
+class PostgresIntegrationTest {
+    
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 4, 15, 10, 30);
+    
+    private static EmbeddedPostgres postgres;
+    private static DatabaseManager databaseManager;
+    
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        System.setProperty("database.type", DatabaseType.POSTGRESQL.name());
+        System.setProperty("database.url", postgres.getJdbcUrl("postgres", "postgres"));
+        System.setProperty("database.username", "postgres");
+        
+        databaseManager = new DatabaseManager(StorageMode.FILE);
+    }
+    
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (databaseManager != null) {
+            databaseManager.close();
+        }
+        System.clearProperty("database.type");
+        System.clearProperty("database.url");
+        System.clearProperty("database.username");
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+    
+    @Test
+    void migrationsBringEmptyDatabaseToLatestVersion() throws SQLException {
+        assertEquals(DatabaseType.POSTGRESQL, databaseManager.getDialect().getType());
+        
+        List<Migration> migrations = Migrations.postgres();
+        try (Connection conn = databaseManager.getReadConnection()) {
+            assertEquals(migrations.get(migrations.size() - 1).getVersion(),
+                new MigrationRunner(migrations).getCurrentVersion(conn));
+            assertEquals(List.of(), databaseManager.getDialect().checkIntegrity(conn));
+        }
+    }
+    
+    @Test
+    void repositoriesRoundTrip() throws SQLException {
+        User user = new User("postgres-it", "hash", null);
+        new UserRepositoryImpl(databaseManager).save(user);
+        Long userId = user.getId();
+        
+        CategoryRepositoryImpl categoryRepository = new CategoryRepositoryImpl(databaseManager);
+        Category salary = new Category("Зарплата", "#2ED573", TransactionType.INCOME);
+        salary.setUserId(userId);
+        Category food = new Category("Продукты", "#FF4757", TransactionType.EXPENSE);
+        food.setUserId(userId);
+        categoryRepository.saveAll(List.of(salary, food));
+        
+        TransactionRepositoryImpl transactionRepository = new TransactionRepositoryImpl(databaseManager);
+        Transaction income = transaction("Аванс", 5_000_000, DAY, salary, TransactionType.INCOME, userId);
+        Transaction bread = transaction("Хлеб", -5_000, DAY.plusHours(2), food, TransactionType.EXPENSE, userId);
+        Transaction milk = transaction("Молоко", -9_990, DAY.plusHours(2), food, TransactionType.EXPENSE, userId);
+        transactionRepository.save(income);
+        transactionRepository.saveAll(List.of(bread, milk));
+        
+        Transaction loaded = transactionRepository.findById(bread.getId()).orElseThrow();
+        assertEquals("Хлеб", loaded.getDescription());
+        assertEquals(-5_000, loaded.getAmount());
+        assertEquals(bread.getDate(), loaded.getDate());
+        assertEquals(food.getId(), loaded.getCategoryId());
+        assertEquals(TransactionType.EXPENSE, loaded.getType());
+        assertEquals(List.of("Зарплата", "Продукты"),
+            categoryRepository.findByUserId(userId).stream().map(Category::getName).sorted().toList());
+        
+        // Новые операции первыми, внутри одной даты - по id; страницы идут тем же порядком
+        List<Long> history = transactionRepository.findByUserId(userId).stream().map(Transaction::getId).toList();
+        assertEquals(List.of(milk.getId(), bread.getId(), income.getId()), history);
+        Transaction first = transactionRepository.findPage(userId, null, null, 1).get(0);
+        assertEquals(List.of(bread.getId(), income.getId()),
+            transactionRepository.findPage(userId, first.getDate(), first.getId(), 10).stream().map(Transaction::getId).toList());
+        
+        // Итоги читаются из rollup_monthly, который ведут триггеры PostgreSQL
+        AggregationRepositoryImpl aggregationRepository = new AggregationRepositoryImpl(databaseManager);
+        PeriodTotals totals = aggregationRepository.totals(userId, DAY.withDayOfMonth(1), DAY.withDayOfMonth(1).plusMonths(1));
+        assertEquals(5_000_000, totals.getIncome());
+        assertEquals(3, totals.getCount());
+        List<CategoryTotal> byCategory = aggregationRepository.sumByCategory(userId, DAY.withDayOfMonth(1),
+            DAY.withDayOfMonth(1).plusMonths(1));
+        assertTrue(byCategory.stream().anyMatch(total -> total.getCategoryId() == food.getId() && total.getCount() == 2));
+        
+        milk.setAmount(-12_000);
+        transactionRepository.update(milk);
+        assertEquals(-12_000, transactionRepository.findById(milk.getId()).orElseThrow().getAmount());
+        
+        // Внешний ключ: операции удалённой категории остаются без категории
+        categoryRepository.delete(food);
+        assertNull(transactionRepository.findById(bread.getId()).orElseThrow().getCategoryId());
+        assertEquals(0, aggregationRepository.countRollupMismatches());
+        try (Connection conn = databaseManager.getReadConnection()) {
+            assertEquals(List.of(), databaseManager.getDialect().checkIntegrity(conn));
+        }
+    }
+    
+    @Test
+    void slowQueryLogCapturesGenericPlan(@TempDir Path directory) throws SQLException, IOException {
+        // Порог 0: записывается каждый запрос; план строится на отдельном соединении пула читателей
+        Path file = directory.resolve("slow.log");
+        SlowQueryLog log = new SlowQueryLog(databaseManager.getDialect(), 0, file, 1024 * 1024, 1);
+        log.setPlanDataSource(postgres.getPostgresDatabase());
+        
+        try (Connection conn = log.wrap(postgres.getPostgresDatabase().getConnection())) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT id FROM transactions WHERE user_id = ? AND description <> '?' ORDER BY date DESC LIMIT ?")) {
+                pstmt.setLong(1, 1);
+                pstmt.setInt(2, 10);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE transactions SET amount = ? WHERE id = ?")) {
+                pstmt.setLong(1, 0);
+                pstmt.setLong(2, -1);
+                pstmt.executeUpdate();
+            }
+        }
+        log.close();
+        
+        assertEquals(2, log.getLoggedQueries());
+        String entries = Files.readString(file, StandardCharsets.UTF_8);
+        assertFalse(entries.contains("EXPLAIN failed"), entries);
+        assertFalse(entries.contains("plan not captured"), entries);
+        assertTrue(entries.contains("Limit"), entries);
+        assertTrue(entries.contains("Update on transactions"), entries);
+        
+        // Подготовленный запрос и plan_cache_mode не остаются в сеансе соединения из пула
+        try (Connection conn = databaseManager.getReadConnection()) {
+            databaseManager.getDialect().explain(conn, "SELECT id FROM users WHERE username = ?");
+            try (ResultSet rs = conn.createStatement().executeQuery(
+                "SELECT count(*), current_setting('plan_cache_mode') FROM pg_prepared_statements")) {
+                rs.next();
+                assertEquals(0, rs.getInt(1));
+                assertEquals("auto", rs.getString(2));
+            }
+        }
+    }
+    
+    private static Transaction transaction(String description, long amount, LocalDateTime date, Category category,
+                                           TransactionType type, Long userId) {
+        Transaction transaction = new Transaction(description, amount, date, category, type);
+        transaction.setUserId(userId);
+        return transaction;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.bench;
+
+import org.example.model.Category;
+import org.example.model.CategoryTotal;
+import org.example.model.ChartSlice;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.service.AggregationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Агрегаты главного экрана (AggregationService) по истории одного пользователя в памяти, без БД
+ * Период - год или месяц внутри трёхлетней истории, история 1k/10k/100k/1M операций
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregationServiceBenchmark {
+    
+    private static final long SEED = 42;
+    private static final int CATEGORIES = 12;
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long PERIOD_SECONDS = 3L * 365 * 24 * 3600;
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int history;
+    
+    private final AggregationService aggregationService = AggregationService.getInstance();
+    private final Map<Long, Category> categoriesById = new HashMap<>();
+    private List<Transaction> transactions;
+    private List<CategoryTotal> yearTotals;
+    
+    private LocalDateTime yearFrom;
+    private LocalDateTime yearTo;
+    private LocalDateTime monthFrom;
+    private LocalDateTime monthTo;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        
+        // Первые три категории - доходы; часть операций без категории
+        for (long id = 1; id <= CATEGORIES; id++) {
+            TransactionType type = id <= 3 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            Category category = new Category(id, "Категория " + id, "#808080", type);
+            categoriesById.put(id, category);
+        }
+        
+        transactions = new ArrayList<>(history);
+        for (int i = 0; i < history; i++) {
+            long categoryId = 1 + random.nextInt(CATEGORIES);
+            TransactionType type = categoryId <= 3 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            long amount = 100 + random.nextLong(5_000_000);
+            transactions.add(new Transaction(
+                (long) i + 1,
+                "Операция " + i,
+                type == TransactionType.INCOME ? amount : -amount,
+                START.plusSeconds(random.nextLong(PERIOD_SECONDS)),
+                random.nextInt(20) == 0 ? null : categoryId,
+                type));
+        }
+        
+        yearFrom = aggregationService.periodStart(2024, null, null);
+        yearTo = aggregationService.periodEnd(yearFrom, null, null);
+        monthFrom = aggregationService.periodStart(2024, 6, null);
+        monthTo = aggregationService.periodEnd(monthFrom, 6, null);
+        yearTotals = aggregationService.sumByCategory(transactions, yearFrom, yearTo);
+    }
+    
+    /**
+     * Суммы по категориям за год: примерно треть истории попадает в период
+     */
+    @Benchmark
+    public List<CategoryTotal> sumByCategoryYear() {
+        return aggregationService.sumByCategory(transactions, yearFrom, yearTo);
+    }
+    
+    @Benchmark
+    public List<CategoryTotal> sumByCategoryMonth() {
+        return aggregationService.sumByCategory(transactions, monthFrom, monthTo);
+    }
+    
+    /**
+     * Полное обновление главного экрана: суммы, итоги и секторы обеих диаграмм
+     */
+    @Benchmark
+    public void homeScreenYear(Blackhole blackhole) {
+        List<CategoryTotal> totals = aggregationService.sumByCategory(transactions, yearFrom, yearTo);
+        blackhole.consume(aggregationService.totals(totals));
+        blackhole.consume(aggregationService.chartSlices(totals, TransactionType.INCOME, categoriesById::get));
+        blackhole.consume(aggregationService.chartSlices(totals, TransactionType.EXPENSE, categoriesById::get));
+    }
+    
+    /**
+     * Только построение секторов по готовым суммам (путь, когда суммы считает БД)
+     */
+    @Benchmark
+    public List<ChartSlice> chartSlices() {
+        return aggregationService.chartSlices(yearTotals, TransactionType.EXPENSE, categoriesById::get);
+    }
+}
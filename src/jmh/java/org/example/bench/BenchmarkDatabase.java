@@ -0,0 +1,85 @@
+package org.example.bench;
+
+import org.example.config.StorageMode;
+import org.example.database.DatabaseManager;
+import org.example.dataset.DatasetGenerator;
+import org.example.dataset.GeneratedDataset;
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.repository.impl.CategoryRepositoryImpl;
+import org.example.repository.impl.TransactionRepositoryImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Отдельная БД для бенчмарка с воспроизводимым набором данных (DatasetGenerator)
+ * Данные распределены между USERS пользователями, история - примерно три года
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+    
+    static final int USERS = 10;
+    
+    private static final long SEED = 42;
+    private static final int YEARS = 3;
+    private static final LocalDateTime START = DatasetGenerator.DEFAULT_END_DATE.minusYears(YEARS).atStartOfDay();
+    private static final long PERIOD_SECONDS = YEARS * 365L * 24 * 3600;
+    
+    final DatabaseManager databaseManager;
+    final TransactionRepositoryImpl transactionRepository;
+    final CategoryRepositoryImpl categoryRepository;
+    
+    List<Long> userIds;
+    List<List<Category>> categoriesByUser;
+    long minTransactionId;
+    long maxTransactionId;
+    
+    /**
+     * @param storage режим хранения: memory или temp-file
+     */
+    BenchmarkDatabase(String storage) {
+        databaseManager = new DatabaseManager(StorageMode.fromName(storage));
+        transactionRepository = new TransactionRepositoryImpl(databaseManager);
+        categoryRepository = new CategoryRepositoryImpl(databaseManager);
+    }
+    
+    /**
+     * Создать пользователей, категории и rows транзакций пакетной записью
+     */
+    void seed(int rows) {
+        GeneratedDataset dataset = new DatasetGenerator(databaseManager, SEED).generate("bench", USERS, rows, YEARS);
+        userIds = dataset.getUserIds();
+        categoriesByUser = dataset.getCategoriesByUser();
+        minTransactionId = dataset.getMinTransactionId();
+        maxTransactionId = dataset.getMaxTransactionId();
+    }
+    
+    /**
+     * Новая транзакция случайного пользователя (без ID)
+     */
+    Transaction randomTransaction(SplittableRandom random) {
+        int user = random.nextInt(USERS);
+        List<Category> categories = categoriesByUser.get(user);
+        Category category = categories.get(random.nextInt(categories.size()));
+        long amount = 100 + random.nextLong(500_000);
+        if (category.getType() == TransactionType.EXPENSE) {
+            amount = -amount;
+        }
+        
+        Transaction transaction = new Transaction("Операция", amount,
+            START.plusSeconds(random.nextLong(PERIOD_SECONDS)), category, category.getType());
+        transaction.setUserId(userIds.get(user));
+        return transaction;
+    }
+    
+    Long randomUserId(SplittableRandom random) {
+        return userIds.get(random.nextInt(USERS));
+    }
+    
+    @Override
+    public void close() {
+        databaseManager.close();
+    }
+}
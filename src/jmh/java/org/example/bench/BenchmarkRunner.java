@@ -0,0 +1,49 @@
+package org.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа benchmarks.jar
+ * Принимает обычные параметры JMH (-l и -h только печатают список и справку); если формат результата не задан,
+ * результаты пишутся в JSON (target/jmh-result.json), чтобы сравнивать прогоны.
+ * Без явного -prof подключается GC профайлер: скорость выделения памяти (gc.alloc.rate.norm)
+ * попадает в результаты рядом со временем
+ */
+public final class BenchmarkRunner {
+    
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList() || commandLine.shouldListWithParams()) {
+            new Runner(commandLine).list();
+            return;
+        }
+        
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        
+        new Runner(options.build()).run();
+    }
+}
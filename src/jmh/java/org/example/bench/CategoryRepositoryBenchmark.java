@@ -0,0 +1,58 @@
+package org.example.bench;
+
+import org.example.model.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CategoryRepositoryImpl.findByUserId рядом с транзакциями разного объёма
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddatabase.slow-query.threshold-ms=-1")
+@State(Scope.Benchmark)
+public class CategoryRepositoryBenchmark {
+    
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+    
+    @Param({"temp-file", "memory"})
+    public String storage;
+    
+    private BenchmarkDatabase database;
+    private SplittableRandom random;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase(storage);
+        database.seed(rows);
+        random = new SplittableRandom(7);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+    
+    @Benchmark
+    public List<Category> findByUserId() {
+        return database.categoryRepository.findByUserId(database.randomUserId(random));
+    }
+}
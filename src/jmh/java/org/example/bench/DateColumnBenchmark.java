@@ -0,0 +1,105 @@
+package org.example.bench;
+
+import org.example.util.EpochTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка истории до и после перевода transactions.date в INTEGER (миграция V5):
+ * чтение rows строк с разбором даты из ISO строки (text) и из секунд от 1970-01-01 (integer)
+ * Обе таблицы лежат в одной БД в памяти и содержат одинаковые даты
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateColumnBenchmark {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private static final long PERIOD_SECONDS = 3 * 365L * 24 * 3600;
+    
+    @Param({"1000000"})
+    public int rows;
+    
+    @Param({"text", "integer"})
+    public String dates;
+    
+    private Connection connection;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE text_dates (id INTEGER PRIMARY KEY, date TEXT NOT NULL)");
+            stmt.execute("CREATE TABLE integer_dates (id INTEGER PRIMARY KEY, date INTEGER NOT NULL)");
+        }
+        
+        connection.setAutoCommit(false);
+        SplittableRandom random = new SplittableRandom(42);
+        try (PreparedStatement text = connection.prepareStatement("INSERT INTO text_dates (date) VALUES (?)");
+             PreparedStatement integer = connection.prepareStatement("INSERT INTO integer_dates (date) VALUES (?)")) {
+            for (int i = 0; i < rows; i++) {
+                LocalDateTime date = START.plusSeconds(random.nextLong(PERIOD_SECONDS));
+                text.setString(1, date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                text.addBatch();
+                integer.setLong(1, EpochTime.toEpochSecond(date));
+                integer.addBatch();
+            }
+            text.executeBatch();
+            integer.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+    
+    /**
+     * Все строки таблицы с разбором даты, как в mapResultSetToTransaction
+     *
+     * @return сумма дней, чтобы JIT не выбросил разбор
+     */
+    @Benchmark
+    public long load() throws SQLException {
+        boolean text = "text".equals(dates);
+        long checksum = 0;
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(text ? "SELECT id, date FROM text_dates" : "SELECT id, date FROM integer_dates")) {
+            while (rs.next()) {
+                LocalDateTime date = text
+                    ? LocalDateTime.parse(rs.getString(2), DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    : EpochTime.fromEpochSecond(rs.getLong(2));
+                checksum += date.getDayOfYear();
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.bench;
+
+import org.example.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции TransactionRepositoryImpl на наборах 10k/100k/1M строк
+ * в файле (temp-file) и в памяти (memory)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddatabase.slow-query.threshold-ms=-1")
+@State(Scope.Benchmark)
+public class TransactionRepositoryBenchmark {
+    
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+    
+    @Param({"temp-file", "memory"})
+    public String storage;
+    
+    private BenchmarkDatabase database;
+    private SplittableRandom random;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase(storage);
+        database.seed(rows);
+        random = new SplittableRandom(7);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+    
+    @Benchmark
+    public Transaction save() {
+        Transaction transaction = database.randomTransaction(random);
+        database.transactionRepository.save(transaction);
+        return transaction;
+    }
+    
+    /**
+     * Вся история пользователя: rows / USERS строк
+     */
+    @Benchmark
+    public List<Transaction> findByUserId() {
+        return database.transactionRepository.findByUserId(database.randomUserId(random));
+    }
+    
+    @Benchmark
+    public Transaction update() {
+        Transaction transaction = database.randomTransaction(random);
+        long span = database.maxTransactionId - database.minTransactionId + 1;
+        transaction.setId(database.minTransactionId + random.nextLong(span));
+        database.transactionRepository.update(transaction);
+        return transaction;
+    }
+    
+    /**
+     * Удаляется строка, вставленная перед вызовом вне замера, поэтому размер набора не меняется
+     */
+    @Benchmark
+    public void delete(DeleteTarget target) {
+        database.transactionRepository.delete(target.transaction);
+    }
+    
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        Transaction transaction;
+        
+        @Setup(Level.Invocation)
+        public void insert(TransactionRepositoryBenchmark benchmark) {
+            transaction = benchmark.database.randomTransaction(benchmark.random);
+            benchmark.database.transactionRepository.save(transaction);
+        }
+    }
+}
@@ -3,50 +3,108 @@ package org.example;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import org.example.service.SessionManager;
+import javafx.stage.StageStyle;
+import org.example.config.DatabaseConfig;
+import org.example.database.DatabaseManager;
+import org.example.repository.async.AsyncExecution;
+import org.example.repository.metrics.RepositoryMetrics;
+import org.example.service.AuthService;
+import org.example.service.DataService;
+import org.example.util.StartupTimeline;
 import org.example.util.WindowsThemeUtil;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Запуск приложения
+ * Подключение к БД, создание сервисов и загрузка данных выполняются в фоне, параллельно
+ * с разбором FXML и CSS в потоке JavaFX; до их окончания показывается заставка.
+ * Фазы запуска записываются в StartupTimeline и выводятся в лог, когда окно показано
+ */
 public class FinancePlannerApp extends Application {
 
+    private static final String BACKGROUND_COLOR = "#0A1628";
+
+    // Менеджер, созданный при запуске; null, если подключиться к БД не удалось
+    private volatile DatabaseManager databaseManager;
+
     @Override
-    public void start(Stage stage) throws IOException {
-        SessionManager sessionManager = SessionManager.getInstance();
-        
-        // Проверяем, авторизован ли пользователь
-        String fxmlPath;
-        int width, height;
-        
-        if (sessionManager.isLoggedIn()) {
-            // Если пользователь уже авторизован, открываем главное окно
-            fxmlPath = "/fxml/main.fxml";
-            width = 1200;
-            height = 700;
-        } else {
-            // Иначе показываем экран логина
-            fxmlPath = "/fxml/login.fxml";
-            width = 500;
-            height = 600;
-        }
+    public void start(Stage stage) {
+        StartupTimeline timeline = StartupTimeline.getInstance();
+        timeline.mark("JavaFX toolkit started");
         
-        FXMLLoader fxmlLoader = new FXMLLoader(FinancePlannerApp.class.getResource(fxmlPath));
-        Scene scene = new Scene(fxmlLoader.load(), width, height);
-        scene.getStylesheets().add(getClass().getResource("/css/style.css").toExternalForm());
-        scene.setFill(Color.web("#0A1628")); // Цвет фона
+        // Заставка без CSS и FXML, чтобы появиться до того, как что-то разобрано
+        Stage splash = showSplash();
         
-        stage.setTitle(sessionManager.isLoggedIn() ? "Планировщик финансов" : "Авторизация");
-        stage.setScene(scene);
+        // Пул соединений и проверка схемы - самая долгая часть запуска
+        CompletableFuture<Void> services = AsyncExecution.run(() -> {
+            timeline.time("database bootstrap", () -> {
+                databaseManager = DatabaseManager.getInstance();
+            });
+            timeline.time("services", () -> {
+                AuthService.getInstance();
+                DataService.getInstance();
+            });
+        });
+        
+        // Экран входа не обращается к сервисам, поэтому его FXML разбирается сразу, параллельно с БД;
+        // главное окно и данные пользователя загружает LoginController после входа
+        Platform.runLater(() -> {
+            Scene scene;
+            try {
+                scene = timeline.time("login.fxml + CSS", this::createScene);
+            } catch (RuntimeException e) {
+                failStartup(e);
+                return;
+            }
+            
+            services.whenComplete((v, error) -> {
+                if (error != null) {
+                    failStartup(AsyncExecution.unwrap(error));
+                    return;
+                }
+                
+                showStage(stage, scene);
+                splash.close();
+                timeline.log("login screen shown");
+            });
+        });
+    }
+
+    /**
+     * Сцена экрана входа: разбор FXML, подключение CSS и применение стилей
+     */
+    private Scene createScene() {
+        String fxmlPath = "/fxml/login.fxml";
         
-        if (sessionManager.isLoggedIn()) {
-            stage.setMinWidth(1000);
-            stage.setMinHeight(600);
-        } else {
-            stage.setResizable(false);
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(FinancePlannerApp.class.getResource(fxmlPath));
+            Scene scene = new Scene(fxmlLoader.load(), 500, 600);
+            scene.getStylesheets().add(getClass().getResource("/css/style.css").toExternalForm());
+            scene.setFill(Color.web(BACKGROUND_COLOR)); // Цвет фона
+            
+            // Стили применяются здесь, а не при первом показе окна
+            scene.getRoot().applyCss();
+            return scene;
+        
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + fxmlPath, e);
         }
+    }
+
+    private void showStage(Stage stage, Scene scene) {
+        stage.setTitle("Авторизация");
+        stage.setScene(scene);
+        stage.setResizable(false);
         
         // Применяем темную тему для title bar (только Windows)
         Platform.runLater(() -> WindowsThemeUtil.setDarkTitleBar(stage));
@@ -54,9 +112,50 @@ public class FinancePlannerApp extends Application {
         stage.show();
     }
 
+    private Stage showSplash() {
+        Label title = new Label("Планировщик финансов");
+        title.setStyle("-fx-text-fill: white; -fx-font-size: 18px;");
+        
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(40, 40);
+        
+        VBox root = new VBox(16, title, progress);
+        root.setAlignment(Pos.CENTER);
+        root.setStyle("-fx-background-color: " + BACKGROUND_COLOR + ";");
+        
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        splash.setScene(new Scene(root, 320, 180, Color.web(BACKGROUND_COLOR)));
+        splash.show();
+        return splash;
+    }
+
+    /**
+     * Заставка не закрывается до выхода: закрытие последнего окна само завершило бы приложение
+     */
+    private void failStartup(Throwable error) {
+        error.printStackTrace();
+        
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Ошибка");
+        alert.setHeaderText(null);
+        alert.setContentText("Не удалось запустить приложение: " + error.getMessage());
+        alert.showAndWait();
+        Platform.exit();
+    }
+
+    @Override
+    public void stop() {
+        // Дожидаемся записей в очереди и закрываем соединения с БД. Закрывается только менеджер,
+        // созданный при запуске: getInstance() здесь заново подключился бы к БД
+        if (databaseManager != null) {
+            databaseManager.shutdown();
+        }
+        if (DatabaseConfig.isMetricsDumpOnExit()) {
+            System.out.print("Repository metrics:\n" + RepositoryMetrics.getInstance().dump());
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
 }
-
-
@@ -0,0 +1,91 @@
+package org.example.cli;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Аргументы командной строки: команда, позиционные аргументы и опции --name=value
+ * Ошибки разбора сообщаются IllegalArgumentException с текстом для пользователя
+ */
+final class CliArguments {
+    
+    private final String command;
+    private final List<String> positional;
+    private final Map<String, String> options;
+    
+    private CliArguments(String command, List<String> positional, Map<String, String> options) {
+        this.command = command;
+        this.positional = positional;
+        this.options = options;
+    }
+    
+    static CliArguments parse(String[] args) {
+        String command = null;
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new LinkedHashMap<>();
+        
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                String[] option = arg.substring(2).split("=", 2);
+                if (option.length != 2 || option[0].isEmpty()) {
+                    throw new IllegalArgumentException("Expected --name=value: " + arg);
+                }
+                options.put(option[0], option[1]);
+            } else if (command == null) {
+                command = arg;
+            } else {
+                positional.add(arg);
+            }
+        }
+        
+        return new CliArguments(command != null ? command : "help", positional, options);
+    }
+    
+    String getCommand() {
+        return command;
+    }
+    
+    /**
+     * Обязательный позиционный аргумент
+     */
+    String positional(int index, String name) {
+        if (index >= positional.size()) {
+            throw new IllegalArgumentException("Missing argument: " + name);
+        }
+        return positional.get(index);
+    }
+    
+    String option(String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing option: --" + name);
+        }
+        return value;
+    }
+    
+    String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+    
+    int intOption(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+    
+    long longOption(String name, long defaultValue) {
+        return options.containsKey(name) ? Long.parseLong(options.get(name)) : defaultValue;
+    }
+    
+    /**
+     * Опечатка в имени опции не должна молча превращаться в значение по умолчанию
+     */
+    void rejectUnknownOptions(Set<String> known) {
+        for (String name : options.keySet()) {
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown option for " + command + ": --" + name);
+            }
+        }
+    }
+}
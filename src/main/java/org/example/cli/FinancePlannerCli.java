@@ -0,0 +1,331 @@
+package org.example.cli;
+
+import org.example.config.DatabaseType;
+import org.example.database.DatabaseManager;
+import org.example.dataset.CategoryTemplate;
+import org.example.dataset.DatasetGenerator;
+import org.example.dataset.GeneratedDataset;
+import org.example.io.CategoryIndex;
+import org.example.io.CsvTransactionImporter;
+import org.example.io.ExportFormat;
+import org.example.io.ExportResult;
+import org.example.io.ImportResult;
+import org.example.io.TransactionExporter;
+import org.example.model.CategoryTotal;
+import org.example.model.PeriodTotals;
+import org.example.model.Transaction;
+import org.example.model.User;
+import org.example.repository.AggregationRepository;
+import org.example.repository.CategoryRepositoryExt;
+import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.UserRepository;
+import org.example.repository.impl.AggregationRepositoryImpl;
+import org.example.repository.impl.CategoryRepositoryImpl;
+import org.example.repository.impl.QueryPlanChecker;
+import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.impl.UserRepositoryImpl;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.repository.metrics.TimedRepositories;
+import org.example.service.AggregationService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Консольный режим для пакетных задач: импорт, выгрузка, пересчёт итогов, проверка БД,
+ * генерация тестовых данных. JavaFX не запускается: используются DatabaseManager,
+ * репозитории и те же импорт/выгрузка, что и в DataService.
+ * В конце выводится время холодного старта (JVM, подключение к БД) и выполнения команды.
+ *
+ * Коды завершения: 0 - успешно, 1 - ошибка или найдены проблемы, 2 - неверные аргументы
+ */
+public final class FinancePlannerCli {
+    
+    private static final String USAGE = """
+        Usage: FinancePlannerCli <command> [arguments]
+
+        Commands:
+          import <file.csv> --user=NAME [--batch=5000]    import transactions from CSV
+          export <file> --user=NAME [--format=csv|ndjson] export all transactions of a user
+          rollup-rebuild                                  recalculate monthly totals
+          check                                           database integrity, rollup and query plan check
+          generate [--users=10] [--transactions=100000] [--years=3] [--seed=42] [--prefix=demo] [--end=2026-01-01]
+                                                          create a reproducible synthetic dataset
+          help                                            show this message
+
+        The database is taken from database.properties (see also -Ddatabase.mode).""";
+    
+    private final DatabaseManager databaseManager;
+    private final UserRepository userRepository;
+    private final CategoryRepositoryExt categoryRepository;
+    private final TransactionRepositoryExt transactionRepository;
+    private final AggregationRepository aggregationRepository;
+    private final AggregationService aggregationService = AggregationService.getInstance();
+    
+    FinancePlannerCli(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        userRepository = TimedRepositories.wrap(UserRepository.class, new UserRepositoryImpl(databaseManager));
+        categoryRepository = TimedRepositories.wrap(CategoryRepositoryExt.class, new CategoryRepositoryImpl(databaseManager));
+        transactionRepository = TimedRepositories.wrap(TransactionRepositoryExt.class, new TransactionRepositoryImpl(databaseManager));
+        aggregationRepository = TimedRepositories.wrap(AggregationRepository.class, new AggregationRepositoryImpl(databaseManager));
+    }
+    
+    public static void main(String[] args) {
+        long mainStart = System.nanoTime();
+        long jvmMillis = ProcessHandle.current().info().startInstant()
+            .map(start -> Duration.between(start, Instant.now()).toMillis())
+            .orElse(-1L);
+        
+        CliArguments arguments;
+        try {
+            arguments = CliArguments.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        
+        if (arguments.getCommand().equals("help")) {
+            System.out.println(USAGE);
+            return;
+        }
+        
+        long databaseStart = System.nanoTime();
+        DatabaseManager databaseManager;
+        try {
+            databaseManager = DatabaseManager.getInstance();
+        } catch (IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        long commandStart = System.nanoTime();
+        int exitCode;
+        
+        try {
+            exitCode = new FinancePlannerCli(databaseManager).run(arguments);
+            
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            exitCode = 2;
+            
+        } catch (IllegalStateException | IOException | UncheckedIOException | SQLException e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+            exitCode = 1;
+            
+        } finally {
+            databaseManager.shutdown();
+        }
+        
+        long end = System.nanoTime();
+        System.out.printf("Cold start: jvm %d ms, database %d ms; command %d ms; total %d ms%n",
+            jvmMillis,
+            TimeUnit.NANOSECONDS.toMillis(commandStart - databaseStart),
+            TimeUnit.NANOSECONDS.toMillis(end - commandStart),
+            TimeUnit.NANOSECONDS.toMillis(end - mainStart) + Math.max(jvmMillis, 0));
+        System.exit(exitCode);
+    }
+    
+    /**
+     * Выполнить команду
+     *
+     * @return код завершения
+     */
+    int run(CliArguments arguments) throws IOException, SQLException {
+        int errorsBefore = RepositoryErrors.count();
+        
+        int exitCode = switch (arguments.getCommand()) {
+            case "import" -> importTransactions(arguments);
+            case "export" -> exportTransactions(arguments);
+            case "rollup-rebuild" -> rebuildRollup(arguments);
+            case "check" -> check(arguments);
+            case "generate" -> generate(arguments);
+            default -> throw new IllegalArgumentException("Unknown command: " + arguments.getCommand());
+        };
+        
+        // Репозитории не бросают исключений, а возвращают пустой результат - ошибку видно по счётчику
+        if (RepositoryErrors.count() > errorsBefore) {
+            System.err.println((RepositoryErrors.count() - errorsBefore) + " database errors, see log above");
+            return 1;
+        }
+        return exitCode;
+    }
+    
+    private int importTransactions(CliArguments arguments) throws IOException {
+        arguments.rejectUnknownOptions(Set.of("user", "batch"));
+        Path file = Path.of(arguments.positional(0, "file"));
+        User user = findUser(arguments.option("user"));
+        int batchSize = arguments.intOption("batch", CsvTransactionImporter.DEFAULT_BATCH_SIZE);
+        
+        CategoryIndex categories = new CategoryIndex(categoryRepository.findByUserId(user.getId()));
+        CsvTransactionImporter importer = new CsvTransactionImporter(transactionRepository, categories, batchSize);
+        
+        ImportResult result = importer.importFile(file, user.getId(), (rows, elapsedNanos) ->
+            System.out.printf("  %d rows, %d s%n", rows, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos)));
+        
+        System.out.println(result);
+        result.getErrors().forEach(error -> System.out.println("  " + error));
+        return result.isComplete() ? 0 : 1;
+    }
+    
+    private int exportTransactions(CliArguments arguments) throws IOException {
+        arguments.rejectUnknownOptions(Set.of("user", "format"));
+        Path file = Path.of(arguments.positional(0, "file"));
+        User user = findUser(arguments.option("user"));
+        ExportFormat format = arguments.option("format", null) != null
+            ? ExportFormat.valueOf(arguments.option("format").toUpperCase(Locale.ROOT))
+            : ExportFormat.fromFileName(file.getFileName().toString());
+        
+        CategoryIndex categories = new CategoryIndex(categoryRepository.findByUserId(user.getId()));
+        ExportResult result = new TransactionExporter(transactionRepository, categories).export(user.getId(), format, file);
+        
+        System.out.println(result + " -> " + file.toAbsolutePath());
+        return 0;
+    }
+    
+    private int rebuildRollup(CliArguments arguments) {
+        arguments.rejectUnknownOptions(Set.of());
+        int rows = aggregationRepository.rebuildMonthlyRollup();
+        System.out.println("Monthly rollup rebuilt: " + rows + " rows");
+        return 0;
+    }
+    
+    /**
+     * Проверка средствами СУБД, сверка помесячных итогов и агрегатов, (для SQLite) планов запросов
+     */
+    private int check(CliArguments arguments) throws SQLException {
+        arguments.rejectUnknownOptions(Set.of());
+        List<String> problems = new ArrayList<>();
+        
+        try (Connection conn = databaseManager.getReadConnection()) {
+            problems.addAll(databaseManager.getDialect().checkIntegrity(conn));
+            
+            if (databaseManager.getDialect().getType() == DatabaseType.SQLITE) {
+                for (String violation : QueryPlanChecker.check(conn)) {
+                    problems.add("Query plan: " + violation);
+                }
+            }
+        }
+        
+        long mismatches = aggregationRepository.countRollupMismatches();
+        if (mismatches > 0) {
+            problems.add("Monthly rollup: " + mismatches + " rows differ from transactions (run rollup-rebuild)");
+        } else if (mismatches < 0) {
+            problems.add("Monthly rollup could not be verified");
+        }
+        problems.addAll(checkAggregates());
+        
+        if (problems.isEmpty()) {
+            System.out.println("Database check OK");
+            return 0;
+        }
+        
+        System.out.println(problems.size() + " problems found:");
+        problems.forEach(problem -> System.out.println("  " + problem));
+        return 1;
+    }
+    
+    /**
+     * Сверка сумм по категориям и итогов из БД с расчётом в памяти (AggregationService)
+     * по всей истории каждого пользователя. Период из целых месяцев читается из rollup_monthly,
+     * период до последней операции (как правило, не с начала месяца) - GROUP BY по транзакциям
+     */
+    private List<String> checkAggregates() {
+        List<String> problems = new ArrayList<>();
+        
+        for (User user : userRepository.findAll()) {
+            List<Transaction> transactions = transactionRepository.findByUserId(user.getId());
+            if (transactions.isEmpty()) {
+                continue;
+            }
+            
+            // История от новых к старым
+            LocalDateTime first = transactions.get(transactions.size() - 1).getDate();
+            LocalDateTime last = transactions.get(0).getDate();
+            LocalDateTime monthsFrom = first.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            LocalDateTime monthsTo = last.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+            
+            checkPeriod(problems, user, "rollup", transactions, monthsFrom, monthsTo);
+            checkPeriod(problems, user, "transactions", transactions, first, last.plusSeconds(1));
+        }
+        return problems;
+    }
+    
+    private void checkPeriod(List<String> problems, User user, String source, List<Transaction> transactions,
+                             LocalDateTime from, LocalDateTime to) {
+        List<CategoryTotal> expected = aggregationService.sumByCategory(transactions, from, to);
+        List<CategoryTotal> actual = aggregationRepository.sumByCategory(user.getId(), from, to);
+        
+        Map<String, String> expectedByCategory = byCategory(expected);
+        Map<String, String> actualByCategory = byCategory(actual);
+        if (!expectedByCategory.equals(actualByCategory)) {
+            Set<String> differing = new TreeSet<>(expectedByCategory.keySet());
+            differing.addAll(actualByCategory.keySet());
+            differing.removeIf(key -> Objects.equals(expectedByCategory.get(key), actualByCategory.get(key)));
+            problems.add("Aggregates (" + source + ") of user " + user.getUsername() + ": "
+                + differing.size() + " category totals differ from transactions " + differing);
+        }
+        
+        PeriodTotals expectedTotals = aggregationService.totals(expected);
+        PeriodTotals actualTotals = aggregationRepository.totals(user.getId(), from, to);
+        if (expectedTotals.getIncome() != actualTotals.getIncome()
+                || expectedTotals.getExpense() != actualTotals.getExpense()
+                || expectedTotals.getCount() != actualTotals.getCount()) {
+            problems.add("Period totals (" + source + ") of user " + user.getUsername() + " differ from transactions");
+        }
+    }
+    
+    /**
+     * Суммы по ключу "тип/ID категории" для сравнения без учёта порядка строк
+     */
+    private static Map<String, String> byCategory(List<CategoryTotal> totals) {
+        Map<String, String> result = new HashMap<>();
+        for (CategoryTotal total : totals) {
+            result.put(total.getType() + "/" + total.getCategoryId(), total.getTotal() + " x " + total.getCount());
+        }
+        return result;
+    }
+    
+    private int generate(CliArguments arguments) {
+        arguments.rejectUnknownOptions(Set.of("users", "transactions", "years", "seed", "prefix", "end"));
+        int users = arguments.intOption("users", 10);
+        long transactions = arguments.longOption("transactions", 100_000);
+        int years = arguments.intOption("years", DatasetGenerator.DEFAULT_YEARS);
+        long seed = arguments.longOption("seed", 42);
+        String prefix = arguments.option("prefix", DatasetGenerator.DEFAULT_USERNAME_PREFIX);
+        String end = arguments.option("end", null);
+        
+        DatasetGenerator generator = new DatasetGenerator(databaseManager, CategoryTemplate.defaults(), seed,
+            end != null ? LocalDate.parse(end) : DatasetGenerator.DEFAULT_END_DATE);
+        GeneratedDataset dataset = generator.generate(prefix, users, transactions, years);
+        
+        System.out.println("Generated " + dataset + ", password: " + DatasetGenerator.PASSWORD);
+        return 0;
+    }
+    
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+            .orElseThrow(() -> new IllegalArgumentException("Unknown user: " + username));
+    }
+}
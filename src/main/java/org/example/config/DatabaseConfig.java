@@ -1,11 +1,15 @@
 package org.example.config;
 
+import org.example.database.dialect.SqlDialect;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.Properties;
 
 /**
- * Конфигурация базы данных SQLite
+ * Конфигурация базы данных (SQLite или PostgreSQL, свойство database.type)
  */
 public class DatabaseConfig {
     
@@ -22,12 +26,140 @@ public class DatabaseConfig {
         }
     }
     
+    /**
+     * Тип СУБД (database.type), по умолчанию SQLite
+     * Подключение (тип, URL, учётные данные) можно переопределить системными свойствами с теми же именами,
+     * например -Ddatabase.type=POSTGRESQL -Ddatabase.url=jdbc:postgresql://...
+     */
+    public static DatabaseType getType() {
+        return DatabaseType.fromName(System.getProperty("database.type",
+            properties.getProperty("database.type", DatabaseType.SQLITE.name())).trim());
+    }
+    
+    public static SqlDialect getDialect() {
+        return SqlDialect.forType(getType());
+    }
+    
     public static String getUrl() {
-        return properties.getProperty("database.url", "jdbc:sqlite:finance_planner.db");
+        return System.getProperty("database.url", properties.getProperty("database.url", getDialect().getDefaultUrl()));
     }
     
     public static String getDriver() {
-        return "org.sqlite.JDBC";
+        return getDialect().getDriverClassName();
+    }
+    
+    /**
+     * Режим хранения SQLite (database.mode): file, memory или temp-file
+     * Можно переопределить системным свойством -Ddatabase.mode=memory
+     */
+    public static StorageMode getStorageMode() {
+        String name = System.getProperty("database.mode",
+            properties.getProperty("database.mode", StorageMode.FILE.getName()));
+        return StorageMode.fromName(name.trim());
+    }
+    
+    /**
+     * Учётные данные сервера БД (database.username, database.password); для SQLite не нужны
+     */
+    public static String getUsername() {
+        return System.getProperty("database.username", properties.getProperty("database.username"));
+    }
+    
+    public static String getPassword() {
+        return System.getProperty("database.password", properties.getProperty("database.password"));
+    }
+    
+    /**
+     * Профиль производительности SQLite (database.profile)
+     * Можно переопределить системным свойством -Ddatabase.profile=bulk-import
+     */
+    public static SqliteProfile getProfile() {
+        String name = System.getProperty("database.profile",
+            properties.getProperty("database.profile", SqliteProfile.BALANCED.getName()));
+        return SqliteProfile.fromName(name.trim());
+    }
+    
+    /**
+     * Максимум соединений пула читателей (database.pool.reader-size)
+     * Писатель всегда один: записи выполняются по очереди в потоке db-writer
+     */
+    public static int getReaderPoolSize() {
+        return Integer.parseInt(properties.getProperty("database.pool.reader-size", "4").trim());
+    }
+    
+    /**
+     * Минимум простаивающих соединений пула читателей (database.pool.reader-min-idle)
+     */
+    public static int getReaderMinIdle() {
+        return Integer.parseInt(properties.getProperty("database.pool.reader-min-idle", "1").trim());
+    }
+    
+    /**
+     * Порог журнала медленных запросов, мс (database.slow-query.threshold-ms)
+     * Отрицательное значение выключает журнал, 0 - записывать все запросы
+     */
+    public static long getSlowQueryThresholdMillis() {
+        return Long.parseLong(System.getProperty("database.slow-query.threshold-ms",
+            properties.getProperty("database.slow-query.threshold-ms", "100")).trim());
+    }
+    
+    /**
+     * Файл журнала медленных запросов (database.slow-query.file)
+     */
+    public static Path getSlowQueryFile() {
+        return Path.of(properties.getProperty("database.slow-query.file", "slow-queries.log").trim());
+    }
+    
+    /**
+     * Размер файла журнала, после которого он ротируется, КБ (database.slow-query.max-size-kb)
+     */
+    public static long getSlowQueryMaxBytes() {
+        return Long.parseLong(properties.getProperty("database.slow-query.max-size-kb", "1024").trim()) * 1024;
+    }
+    
+    /**
+     * Сколько файлов журнала хранить вместе с текущим (database.slow-query.max-files)
+     */
+    public static int getSlowQueryMaxFiles() {
+        return Integer.parseInt(properties.getProperty("database.slow-query.max-files", "3").trim());
+    }
+    
+    /**
+     * Выводить метрики пулов и репозиториев в лог при завершении (database.metrics.dump-on-exit)
+     * По умолчанию выключено; можно включить системным свойством -Ddatabase.metrics.dump-on-exit=true
+     */
+    public static boolean isMetricsDumpOnExit() {
+        return Boolean.parseBoolean(System.getProperty("database.metrics.dump-on-exit",
+            properties.getProperty("database.metrics.dump-on-exit", "false")).trim());
+    }
+    
+    /**
+     * Период сброса очереди отложенных записей, мс (database.write-behind.flush-interval-ms)
+     */
+    public static long getWriteBehindFlushIntervalMillis() {
+        return Long.parseLong(properties.getProperty("database.write-behind.flush-interval-ms", "200").trim());
+    }
+    
+    /**
+     * Размер очереди, при котором сброс выполняется сразу (database.write-behind.max-batch)
+     */
+    public static int getWriteBehindMaxBatch() {
+        return Integer.parseInt(properties.getProperty("database.write-behind.max-batch", "100").trim());
+    }
+    
+    /**
+     * PRAGMA для каждого соединения: значения профиля,
+     * переопределённые свойствами database.sqlite.<pragma> (например database.sqlite.cache_size)
+     */
+    public static Map<String, String> getSqlitePragmas() {
+        Map<String, String> pragmas = getProfile().getPragmas();
+        for (String pragma : pragmas.keySet()) {
+            String value = properties.getProperty("database.sqlite." + pragma);
+            if (value != null) {
+                pragmas.put(pragma, value.trim());
+            }
+        }
+        return pragmas;
     }
 }
 
@@ -0,0 +1,29 @@
+package org.example.config;
+
+/**
+ * Тип СУБД (свойство database.type)
+ */
+public enum DatabaseType {
+    
+    /**
+     * Локальный файл SQLite (по умолчанию)
+     */
+    SQLITE,
+    
+    /**
+     * Сервер PostgreSQL
+     */
+    POSTGRESQL;
+    
+    /**
+     * Найти тип по значению из конфигурации (без учёта регистра)
+     */
+    public static DatabaseType fromName(String name) {
+        for (DatabaseType type : values()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown database type: " + name);
+    }
+}
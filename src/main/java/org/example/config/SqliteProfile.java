@@ -0,0 +1,71 @@
+package org.example.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Профили производительности SQLite
+ * Каждый профиль - набор PRAGMA, которые применяются к каждому соединению пула
+ */
+public enum SqliteProfile {
+    
+    /**
+     * Максимальная надёжность: fsync на каждый коммит, без mmap
+     */
+    DURABLE("durable", "FULL", 0L, -8_000, 10_000),
+    
+    /**
+     * Режим по умолчанию: WAL + synchronous=NORMAL (коммит не теряет целостность, fsync на checkpoint)
+     */
+    BALANCED("balanced", "NORMAL", 256L * 1024 * 1024, -32_000, 5_000),
+    
+    /**
+     * Массовая загрузка: без fsync, большой кэш. Сбой питания может потерять последние коммиты
+     */
+    BULK_IMPORT("bulk-import", "OFF", 1024L * 1024 * 1024, -128_000, 30_000);
+    
+    private final String name;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final int busyTimeout;
+    
+    SqliteProfile(String name, String synchronous, long mmapSize, int cacheSize, int busyTimeout) {
+        this.name = name;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.busyTimeout = busyTimeout;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * PRAGMA профиля в формате свойств драйвера sqlite-jdbc
+     * cache_size отрицательный - размер в килобайтах, busy_timeout в миллисекундах
+     */
+    public Map<String, String> getPragmas() {
+        Map<String, String> pragmas = new LinkedHashMap<>();
+        pragmas.put("journal_mode", "WAL");
+        pragmas.put("synchronous", synchronous);
+        pragmas.put("mmap_size", String.valueOf(mmapSize));
+        pragmas.put("cache_size", String.valueOf(cacheSize));
+        pragmas.put("temp_store", "MEMORY");
+        pragmas.put("busy_timeout", String.valueOf(busyTimeout));
+        return pragmas;
+    }
+    
+    /**
+     * Найти профиль по имени из конфигурации
+     */
+    public static SqliteProfile fromName(String name) {
+        for (SqliteProfile profile : values()) {
+            if (profile.name.equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown database profile: " + name);
+    }
+}
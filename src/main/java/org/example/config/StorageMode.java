@@ -0,0 +1,44 @@
+package org.example.config;
+
+/**
+ * Где SQLite хранит данные (свойство database.mode)
+ */
+public enum StorageMode {
+    
+    /**
+     * Файл из database.url (по умолчанию)
+     */
+    FILE("file"),
+    
+    /**
+     * Именованная БД в памяти с общим кэшем: данные живут, пока открыт менеджер
+     */
+    MEMORY("memory"),
+    
+    /**
+     * Временный файл, удаляется при закрытии менеджера
+     */
+    TEMP_FILE("temp-file");
+    
+    private final String name;
+    
+    StorageMode(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Найти режим по имени из конфигурации
+     */
+    public static StorageMode fromName(String name) {
+        for (StorageMode mode : values()) {
+            if (mode.name.equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage mode: " + name);
+    }
+}
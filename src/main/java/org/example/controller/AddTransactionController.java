@@ -6,7 +6,9 @@ import javafx.stage.Stage;
 import org.example.model.Category;
 import org.example.model.Transaction;
 import org.example.model.TransactionType;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.DataService;
+import org.example.util.Money;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -126,7 +128,7 @@ public class AddTransactionController {
                 description = "Транзакция";
             }
             
-            double amount = Double.parseDouble(amountField.getText());
+            long amount = Money.parse(amountField.getText());
             TransactionType type = getSelectedType();
             
             // Для расходов делаем сумму отрицательной
@@ -141,8 +143,13 @@ public class AddTransactionController {
             // Создаём транзакцию
             Transaction transaction = new Transaction(description, amount, dateTime, category, type);
             
-            // Сохраняем
-            dataService.addTransaction(transaction);
+            // Сохраняем (запись в БД выполняется очередью отложенных записей, диалог к тому времени закрыт)
+            dataService.addTransaction(transaction).exceptionally(error -> {
+                Throwable cause = AsyncExecution.unwrap(error);
+                cause.printStackTrace();
+                showError("Ошибка", "Не удалось сохранить транзакцию: " + cause.getMessage());
+                return null;
+            });
             
             saved = true;
             closeDialog();
@@ -176,7 +183,7 @@ public class AddTransactionController {
             errors.append("• Введите сумму\n");
         } else {
             try {
-                double amount = Double.parseDouble(amountField.getText());
+                long amount = Money.parse(amountField.getText());
                 if (amount <= 0) {
                     errors.append("• Сумма должна быть больше 0\n");
                 }
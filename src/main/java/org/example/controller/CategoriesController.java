@@ -6,6 +6,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import org.example.model.Category;
 import org.example.model.TransactionType;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.DataService;
 
 public class CategoriesController {
@@ -78,8 +79,12 @@ public class CategoriesController {
         Button deleteButton = new Button("Удалить");
         deleteButton.getStyleClass().add("delete-button");
         deleteButton.setOnAction(e -> {
-            dataService.removeCategory(category);
-            loadCategories();
+            dataService.removeCategory(category).whenComplete((v, error) -> {
+                if (error != null) {
+                    showError("Не удалось удалить категорию", error);
+                }
+                loadCategories();
+            });
         });
         
         row.getChildren().addAll(colorBox, nameLabel, spacer, editButton, deleteButton);
@@ -141,10 +146,19 @@ public class CategoriesController {
             ? TransactionType.INCOME : TransactionType.EXPENSE;
         
         Category newCategory = new Category(name, color, type);
-        dataService.addCategory(newCategory);
-        
         categoryNameField.clear();
-        loadCategories();
+        dataService.addCategory(newCategory).whenComplete((v, error) -> {
+            if (error != null) {
+                showError("Не удалось добавить категорию", error);
+            }
+            loadCategories();
+        });
+    }
+
+    private void showError(String message, Throwable error) {
+        Throwable cause = AsyncExecution.unwrap(error);
+        cause.printStackTrace();
+        showAlert("Ошибка", message + ": " + cause.getMessage());
     }
 
     private void showAlert(String title, String message) {
@@ -5,6 +5,7 @@ import javafx.scene.control.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import org.example.model.Category;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.DataService;
 
 public class EditCategoryController {
@@ -56,6 +57,10 @@ public class EditCategoryController {
             return;
         }
 
+        // Прежние значения возвращаются, если запись в БД не удалась
+        String oldName = category.getName();
+        String oldColor = category.getColor();
+
         try {
             // Обновляем данные категории
             category.setName(nameField.getText().trim());
@@ -68,9 +73,19 @@ public class EditCategoryController {
                     (int) (color.getBlue() * 255));
             category.setColor(hexColor);
 
-            dataService.updateCategory(category);
-            saved = true;
-            dialogStage.close();
+            dataService.updateCategory(category).whenComplete((v, error) -> {
+                if (error != null) {
+                    Throwable cause = AsyncExecution.unwrap(error);
+                    cause.printStackTrace();
+                    category.setName(oldName);
+                    category.setColor(oldColor);
+                    showAlert("Ошибка", "Не удалось обновить категорию: " + cause.getMessage());
+                    return;
+                }
+                
+                saved = true;
+                dialogStage.close();
+            });
 
         } catch (Exception e) {
             showAlert("Ошибка", "Не удалось обновить категорию: " + e.getMessage());
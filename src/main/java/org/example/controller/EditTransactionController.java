@@ -8,7 +8,9 @@ import javafx.stage.Stage;
 import org.example.model.Category;
 import org.example.model.Transaction;
 import org.example.model.TransactionType;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.DataService;
+import org.example.util.Money;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -81,7 +83,7 @@ public class EditTransactionController {
         }
         
         // Сумма (без знака)
-        amountField.setText(String.format("%.2f", Math.abs(transaction.getAmount())));
+        amountField.setText(Money.format(Math.abs(transaction.getAmount())));
         
         // Дата
         datePicker.setValue(transaction.getDate().toLocalDate());
@@ -120,7 +122,7 @@ public class EditTransactionController {
         }
 
         try {
-            double amount = Double.parseDouble(amountField.getText().replace(',', '.'));
+            long amount = Money.parse(amountField.getText());
             if (amount <= 0) {
                 showAlert("Ошибка валидации", "Сумма должна быть положительным числом.");
                 return;
@@ -143,7 +145,13 @@ public class EditTransactionController {
             transaction.setDescription(descriptionArea.getText());
             transaction.setType(type);
 
-            dataService.updateTransaction(transaction);
+            // Запись в БД выполняется очередью отложенных записей, диалог к тому времени закрыт
+            dataService.updateTransaction(transaction).exceptionally(error -> {
+                Throwable cause = AsyncExecution.unwrap(error);
+                cause.printStackTrace();
+                showAlert("Ошибка", "Не удалось сохранить изменения транзакции: " + cause.getMessage());
+                return null;
+            });
             saved = true;
             dialogStage.close();
 
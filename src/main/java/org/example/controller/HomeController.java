@@ -15,13 +15,20 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.example.model.CategoryTotal;
+import org.example.model.ChartSlice;
 import org.example.model.Transaction;
 import org.example.model.TransactionType;
+import org.example.repository.async.AsyncExecution;
+import org.example.service.AggregationService;
 import org.example.service.DataService;
+import org.example.util.Money;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class HomeController {
@@ -56,7 +63,13 @@ public class HomeController {
     @FXML
     private Label balanceLabel;
 
+    private static final int RECENT_TRANSACTIONS_COUNT = 5;
+    
     private DataService dataService;
+    private AggregationService aggregationService;
+    
+    // Номер последнего запущенного обновления (только в потоке JavaFX)
+    private int refreshGeneration;
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
     
     // Выбранный период
@@ -67,6 +80,7 @@ public class HomeController {
     @FXML
     public void initialize() {
         dataService = DataService.getInstance();
+        aggregationService = AggregationService.getInstance();
         
         // Настройка диаграмм
         setupCharts();
@@ -77,8 +91,7 @@ public class HomeController {
         updatePeriodLabel();
         
         // Загрузка данных
-        loadChartData();
-        loadTransactions();
+        refresh();
     }
 
     private void setupCharts() {
@@ -91,75 +104,79 @@ public class HomeController {
         expenseChart.setStartAngle(90);
     }
 
-    private void loadChartData() {
-        Map<String, Double> incomeByCategory = new HashMap<>();
-        Map<String, Double> expenseByCategory = new HashMap<>();
-        Map<String, String> categoryColors = new HashMap<>();
-        
-        // Фильтруем транзакции по периоду
-        ObservableList<Transaction> filteredTransactions = getFilteredTransactions();
+    /**
+     * Обновляет диаграммы и список за выбранный период
+     * Диаграммы строятся по агрегатам из БД, из строк загружаются только последние транзакции.
+     * Запросы выполняются в фоне; ответы устаревших обновлений (период успели сменить) отбрасываются
+     */
+    private void refresh() {
+        LocalDateTime from = aggregationService.periodStart(selectedYear, selectedMonth, selectedDay);
+        LocalDateTime to = aggregationService.periodEnd(from, selectedMonth, selectedDay);
         
-        double totalIncome = 0.0;
-        double totalExpense = 0.0;
+        int generation = ++refreshGeneration;
         
-        for (Transaction transaction : filteredTransactions) {
-            // Подсчитываем общий баланс
-            if (transaction.getType() == TransactionType.INCOME) {
-                totalIncome += transaction.getAmount();
-            } else {
-                totalExpense += Math.abs(transaction.getAmount());
+        dataService.getPeriodTotals(from, to).thenAccept(totals -> {
+            if (generation == refreshGeneration) {
+                updateBalance(totals.getIncome(), totals.getExpense());
             }
-            
-            // Проверяем, что категория существует
-            if (transaction.getCategory() == null) {
-                continue;
+        }).exceptionally(this::refreshFailed);
+        dataService.getCategoryTotals(from, to).thenAccept(categoryTotals -> {
+            if (generation == refreshGeneration) {
+                loadChartData(categoryTotals);
             }
-            
-            String categoryName = transaction.getCategory().getName();
-            String categoryColor = transaction.getCategory().getColor();
-            
-            // Сохраняем цвет категории
-            categoryColors.put(categoryName, categoryColor);
-            
-            if (transaction.getType() == TransactionType.INCOME) {
-                incomeByCategory.put(categoryName, 
-                    incomeByCategory.getOrDefault(categoryName, 0.0) + transaction.getAmount());
-            } else {
-                expenseByCategory.put(categoryName, 
-                    expenseByCategory.getOrDefault(categoryName, 0.0) + Math.abs(transaction.getAmount()));
+        }).exceptionally(this::refreshFailed);
+        dataService.getRecentTransactionsForPeriod(from, to, RECENT_TRANSACTIONS_COUNT).thenAccept(recent -> {
+            if (generation == refreshGeneration) {
+                loadTransactions(recent);
             }
-        }
-        
-        // Обновляем баланс
-        updateBalance(totalIncome, totalExpense);
+        }).exceptionally(this::refreshFailed);
+    }
+    
+    /**
+     * Ошибка одного из запросов обновления: остальные части экрана обновляются независимо
+     */
+    private Void refreshFailed(Throwable error) {
+        Throwable cause = AsyncExecution.unwrap(error);
+        System.err.println("Error refreshing home screen: " + cause.getMessage());
+        cause.printStackTrace();
+        return null;
+    }
+    
+    private void loadChartData(List<CategoryTotal> categoryTotals) {
+        List<ChartSlice> incomeSlices = aggregationService.chartSlices(categoryTotals, TransactionType.INCOME, dataService::getCategoryById);
+        List<ChartSlice> expenseSlices = aggregationService.chartSlices(categoryTotals, TransactionType.EXPENSE, dataService::getCategoryById);
+        Map<String, String> categoryColors = new HashMap<>();
         
         // Заполнение диаграммы доходов
-        ObservableList<PieChart.Data> incomeData = FXCollections.observableArrayList();
-        incomeByCategory.forEach((category, amount) -> 
-            incomeData.add(new PieChart.Data(category, amount)));
-        incomeChart.setData(incomeData);
+        incomeChart.setData(toPieData(incomeSlices, categoryColors));
         
         // Применяем цвета категорий к секторам диаграммы доходов
         applyChartColors(incomeChart, categoryColors);
         
         // Заполнение диаграммы расходов
-        ObservableList<PieChart.Data> expenseData = FXCollections.observableArrayList();
-        expenseByCategory.forEach((category, amount) -> 
-            expenseData.add(new PieChart.Data(category, amount)));
-        expenseChart.setData(expenseData);
+        expenseChart.setData(toPieData(expenseSlices, categoryColors));
         
         // Применяем цвета категорий к секторам диаграммы расходов
         applyChartColors(expenseChart, categoryColors);
     }
     
+    private ObservableList<PieChart.Data> toPieData(List<ChartSlice> slices, Map<String, String> categoryColors) {
+        ObservableList<PieChart.Data> data = FXCollections.observableArrayList();
+        for (ChartSlice slice : slices) {
+            categoryColors.put(slice.getName(), slice.getColor());
+            data.add(new PieChart.Data(slice.getName(), Money.toRubles(slice.getTotal())));
+        }
+        return data;
+    }
+    
     /**
      * Обновляет отображение баланса
      */
-    private void updateBalance(double income, double expense) {
-        double balance = income - expense;
+    private void updateBalance(long income, long expense) {
+        long balance = income - expense;
         
         // Форматируем сумму
-        String balanceText = String.format("%.2f руб.", Math.abs(balance));
+        String balanceText = Money.formatRubles(balance);
         if (balance >= 0) {
             balanceText = "+" + balanceText;
         } else {
@@ -224,56 +241,14 @@ public class HomeController {
         }
     }
 
-    private void loadTransactions() {
+    private void loadTransactions(List<Transaction> recentTransactions) {
         transactionsContainer.getChildren().clear();
         
-        // Получаем отфильтрованные транзакции
-        ObservableList<Transaction> filteredTransactions = getFilteredTransactions();
-        
-        // Получаем последние 5 транзакций
-        int count = Math.min(5, filteredTransactions.size());
-        
-        for (int i = filteredTransactions.size() - 1; i >= filteredTransactions.size() - count && i >= 0; i--) {
-            Transaction transaction = filteredTransactions.get(i);
+        // Последние транзакции периода, от новых к старым
+        for (Transaction transaction : recentTransactions) {
             transactionsContainer.getChildren().add(createTransactionRow(transaction));
         }
     }
-    
-    /**
-     * Фильтрует транзакции по выбранному периоду
-     */
-    private ObservableList<Transaction> getFilteredTransactions() {
-        ObservableList<Transaction> allTransactions = dataService.getTransactions();
-        ObservableList<Transaction> filtered = FXCollections.observableArrayList();
-        
-        // Если период не выбран, показываем данные за текущий год
-        int filterYear = selectedYear != null ? selectedYear : java.time.LocalDate.now().getYear();
-        Integer filterMonth = selectedMonth;
-        Integer filterDay = selectedDay;
-        
-        for (Transaction transaction : allTransactions) {
-            java.time.LocalDateTime transactionDate = transaction.getDate();
-            
-            // Фильтрация по году (обязательно)
-            boolean matches = transactionDate.getYear() == filterYear;
-            
-            // Фильтрация по месяцу (если выбран)
-            if (filterMonth != null) {
-                matches = matches && (transactionDate.getMonthValue() == filterMonth);
-            }
-            
-            // Фильтрация по дню (если выбран)
-            if (filterDay != null) {
-                matches = matches && (transactionDate.getDayOfMonth() == filterDay);
-            }
-            
-            if (matches) {
-                filtered.add(transaction);
-            }
-        }
-        
-        return filtered;
-    }
 
     private HBox createTransactionRow(Transaction transaction) {
         HBox row = new HBox(20);
@@ -314,7 +289,7 @@ public class HomeController {
         dateLabel.setAlignment(Pos.CENTER_LEFT);
         
         // Сумма
-        Label amountLabel = new Label(String.format("%.2f руб.", Math.abs(transaction.getAmount())));
+        Label amountLabel = new Label(Money.formatRubles(transaction.getAmount()));
         amountLabel.getStyleClass().add("transaction-amount");
         if (transaction.getType() == TransactionType.INCOME) {
             amountLabel.getStyleClass().add("income");
@@ -377,8 +352,7 @@ public class HomeController {
         yearButton.setSelected(true);
         
         updatePeriodLabel();
-        loadChartData();
-        loadTransactions();
+        refresh();
     }
     
     /**
@@ -401,8 +375,7 @@ public class HomeController {
             selectedMonth = null;
             selectedDay = null;
             updatePeriodLabel();
-            loadChartData();
-            loadTransactions();
+            refresh();
         });
     }
     
@@ -441,8 +414,7 @@ public class HomeController {
             selectedMonth = months.get(monthName);
             selectedDay = null;
             updatePeriodLabel();
-            loadChartData();
-            loadTransactions();
+            refresh();
         });
     }
     
@@ -477,8 +449,7 @@ public class HomeController {
         dialog.showAndWait().ifPresent(day -> {
             selectedDay = day;
             updatePeriodLabel();
-            loadChartData();
-            loadTransactions();
+            refresh();
         });
     }
     
@@ -524,14 +495,25 @@ public class HomeController {
         Alert confirmDialog = new Alert(Alert.AlertType.CONFIRMATION);
         confirmDialog.setTitle("Подтверждение удаления");
         confirmDialog.setHeaderText("Удалить транзакцию?");
-        confirmDialog.setContentText(String.format("Вы действительно хотите удалить транзакцию:\n%s - %.2f руб.",
-                transaction.getDescription(), Math.abs(transaction.getAmount())));
+        confirmDialog.setContentText(String.format("Вы действительно хотите удалить транзакцию:\n%s - %s",
+                transaction.getDescription(), Money.formatRubles(transaction.getAmount())));
         
         confirmDialog.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                dataService.removeTransaction(transaction);
-                loadChartData();
-                loadTransactions();
+                dataService.removeTransaction(transaction).whenComplete((v, error) -> {
+                    if (error != null) {
+                        Throwable cause = AsyncExecution.unwrap(error);
+                        cause.printStackTrace();
+                        
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("Ошибка");
+                        alert.setHeaderText(null);
+                        alert.setContentText("Не удалось удалить транзакцию: " + cause.getMessage());
+                        alert.showAndWait();
+                        refresh();
+                    }
+                });
+                refresh();
             }
         });
     }
@@ -582,8 +564,7 @@ public class HomeController {
             dialogStage.showAndWait();
 
             if (controller.isSaved()) {
-                loadChartData();
-                loadTransactions();
+                refresh();
             }
 
         } catch (Exception e) {
@@ -654,8 +635,7 @@ public class HomeController {
             
             // Если транзакция была сохранена, обновляем данные
             if (controller.isSaved()) {
-                loadChartData();
-                loadTransactions();
+                refresh();
             }
             
         } catch (Exception e) {
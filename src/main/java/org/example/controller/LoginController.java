@@ -3,15 +3,21 @@ package org.example.controller;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import org.example.model.User;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.AuthService;
+import org.example.service.DataService;
 import org.example.service.SessionManager;
+import org.example.util.StartupTimeline;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class LoginController {
 
@@ -24,12 +30,14 @@ public class LoginController {
     @FXML
     private Label errorLabel;
 
-    private AuthService authService;
     private SessionManager sessionManager;
 
+    // Вход выполняется в фоне: повторные нажатия до его окончания игнорируются
+    private boolean inProgress;
+
     @FXML
     public void initialize() {
-        authService = AuthService.getInstance();
+        // AuthService не запрашивается здесь: экран входа разбирается параллельно с подключением к БД
         sessionManager = SessionManager.getInstance();
         
         // Обработка Enter для входа
@@ -38,6 +46,10 @@ public class LoginController {
 
     @FXML
     private void onLogin() {
+        if (inProgress) {
+            return;
+        }
+        
         String username = usernameField.getText().trim();
         String password = passwordField.getText();
 
@@ -46,19 +58,27 @@ public class LoginController {
             return;
         }
 
-        try {
-            // Попытка авторизации
-            User user = authService.login(username, password);
+        // Запрос к БД и проверка пароля (BCrypt) выполняются в фоне, чтобы не блокировать поток JavaFX
+        inProgress = true;
+        AsyncExecution.supply(() -> {
+            try {
+                return AuthService.getInstance().login(username, password);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((user, error) -> {
+            if (error != null) {
+                inProgress = false;
+                showError(AsyncExecution.unwrap(error).getMessage());
+                return;
+            }
             
             // Сохраняем пользователя в сессии
             sessionManager.setCurrentUser(user);
             
             // Открываем главное окно
             openMainWindow();
-            
-        } catch (Exception e) {
-            showError(e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -80,26 +100,54 @@ public class LoginController {
     }
 
     private void openMainWindow() {
+        // Данные пользователя загружаются в фоне, пока в потоке JavaFX разбирается FXML главного окна;
+        // окно показывается, когда загрузка закончится
+        StartupTimeline timeline = StartupTimeline.getInstance();
+        CompletableFuture<Void> preload = timeline.time("data preload", DataService.getInstance().loadData());
+        
+        StartupTimeline.Span parsing = timeline.begin("main.fxml + CSS");
+        Scene scene;
         try {
-            // Загружаем данные пользователя
-            org.example.service.DataService.getInstance().loadData();
-            
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main.fxml"));
-            Scene scene = new Scene(loader.load(), 1200, 700);
+            scene = new Scene(loader.load(), 1200, 700);
             scene.getStylesheets().add(getClass().getResource("/css/style.css").toExternalForm());
-            
-            Stage stage = (Stage) usernameField.getScene().getWindow();
-            stage.setScene(scene);
-            stage.setTitle("Планировщик финансов");
-            stage.setResizable(true);
-            stage.setMaximized(false);
-            stage.setMinWidth(1000);
-            stage.setMinHeight(600);
+            scene.getRoot().applyCss();
             
         } catch (IOException e) {
             e.printStackTrace();
+            sessionManager.logout();
+            inProgress = false;
             showError("Не удалось открыть главное окно");
+            return;
+            
+        } finally {
+            parsing.end();
         }
+        
+        preload.whenComplete((v, error) -> {
+            if (error != null) {
+                // Вход не состоялся: пользователь остаётся на этом экране и может повторить попытку
+                Throwable cause = AsyncExecution.unwrap(error);
+                cause.printStackTrace();
+                sessionManager.logout();
+                inProgress = false;
+                showAlert("Ошибка", "Не удалось загрузить данные: " + cause.getMessage());
+                return;
+            }
+            
+            showMainWindow(scene);
+            timeline.complete("main window shown");
+        });
+    }
+    
+    private void showMainWindow(Scene scene) {
+        Stage stage = (Stage) usernameField.getScene().getWindow();
+        stage.setScene(scene);
+        stage.setTitle("Планировщик финансов");
+        stage.setResizable(true);
+        stage.setMaximized(false);
+        stage.setMinWidth(1000);
+        stage.setMinHeight(600);
     }
 
     private void showError(String message) {
@@ -107,5 +155,13 @@ public class LoginController {
         errorLabel.setVisible(true);
         errorLabel.setManaged(true);
     }
+
+    private void showAlert(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
 }
 
@@ -3,15 +3,21 @@ package org.example.controller;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import org.example.model.User;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.AuthService;
+import org.example.service.DataService;
 import org.example.service.SessionManager;
+import org.example.util.StartupTimeline;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class RegisterController {
 
@@ -33,6 +39,9 @@ public class RegisterController {
     private AuthService authService;
     private SessionManager sessionManager;
 
+    // Регистрация выполняется в фоне: повторные нажатия до её окончания игнорируются
+    private boolean inProgress;
+
     @FXML
     public void initialize() {
         authService = AuthService.getInstance();
@@ -44,6 +53,10 @@ public class RegisterController {
 
     @FXML
     private void onRegister() {
+        if (inProgress) {
+            return;
+        }
+        
         String username = usernameField.getText().trim();
         String email = emailField.getText().trim();
         String password = passwordField.getText();
@@ -60,19 +73,27 @@ public class RegisterController {
             return;
         }
 
-        try {
-            // Регистрация пользователя
-            User user = authService.register(username, password, email.isEmpty() ? null : email);
+        // Хеширование пароля (BCrypt) и запись в БД выполняются в фоне, чтобы не блокировать поток JavaFX
+        inProgress = true;
+        AsyncExecution.supply(() -> {
+            try {
+                return authService.register(username, password, email.isEmpty() ? null : email);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((user, error) -> {
+            if (error != null) {
+                inProgress = false;
+                showError(AsyncExecution.unwrap(error).getMessage());
+                return;
+            }
             
             // Автоматически входим
             sessionManager.setCurrentUser(user);
             
             // Открываем главное окно
             openMainWindow();
-            
-        } catch (Exception e) {
-            showError(e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -92,25 +113,54 @@ public class RegisterController {
     }
 
     private void openMainWindow() {
+        // Данные пользователя загружаются в фоне, пока в потоке JavaFX разбирается FXML главного окна;
+        // окно показывается, когда загрузка закончится
+        StartupTimeline timeline = StartupTimeline.getInstance();
+        CompletableFuture<Void> preload = timeline.time("data preload", DataService.getInstance().loadData());
+        
+        StartupTimeline.Span parsing = timeline.begin("main.fxml + CSS");
+        Scene scene;
         try {
-            // Загружаем данные пользователя
-            org.example.service.DataService.getInstance().loadData();
-            
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main.fxml"));
-            Scene scene = new Scene(loader.load(), 1200, 700);
+            scene = new Scene(loader.load(), 1200, 700);
             scene.getStylesheets().add(getClass().getResource("/css/style.css").toExternalForm());
-            
-            Stage stage = (Stage) usernameField.getScene().getWindow();
-            stage.setScene(scene);
-            stage.setTitle("Планировщик финансов");
-            stage.setResizable(true);
-            stage.setMaximized(false);
-            stage.setMinWidth(1000);
-            stage.setMinHeight(600);
+            scene.getRoot().applyCss();
             
         } catch (IOException e) {
             e.printStackTrace();
+            sessionManager.logout();
+            inProgress = false;
+            showError("Не удалось открыть главное окно");
+            return;
+            
+        } finally {
+            parsing.end();
         }
+        
+        preload.whenComplete((v, error) -> {
+            if (error != null) {
+                // Вход не состоялся: пользователь остаётся на этом экране и может повторить попытку
+                Throwable cause = AsyncExecution.unwrap(error);
+                cause.printStackTrace();
+                sessionManager.logout();
+                inProgress = false;
+                showAlert("Ошибка", "Не удалось загрузить данные: " + cause.getMessage());
+                return;
+            }
+            
+            showMainWindow(scene);
+            timeline.complete("main window shown");
+        });
+    }
+    
+    private void showMainWindow(Scene scene) {
+        Stage stage = (Stage) usernameField.getScene().getWindow();
+        stage.setScene(scene);
+        stage.setTitle("Планировщик финансов");
+        stage.setResizable(true);
+        stage.setMaximized(false);
+        stage.setMinWidth(1000);
+        stage.setMinHeight(600);
     }
 
     private void showError(String message) {
@@ -118,5 +168,13 @@ public class RegisterController {
         errorLabel.setVisible(true);
         errorLabel.setManaged(true);
     }
+
+    private void showAlert(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
 }
 
@@ -6,17 +6,42 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import org.example.database.metrics.PoolMetricsRegistry;
+import org.example.io.ExportFormat;
+import org.example.model.User;
+import org.example.repository.metrics.RepositoryMetrics;
+import org.example.repository.async.AsyncExecution;
 import org.example.service.AuthService;
+import org.example.service.DataService;
 import org.example.service.SessionManager;
+import org.example.service.WriteBehindQueue;
 
+import java.io.File;
 import java.io.IOException;
 
 public class SettingsController {
 
+    private static final int SLOWEST_METHODS_SHOWN = 5;
+
     @FXML
     private Label usernameLabel;
 
+    @FXML
+    private Label importStatusLabel;
+
+    @FXML
+    private Label writeQueueLabel;
+
+    @FXML
+    private Label poolMetricsLabel;
+
+    @FXML
+    private Label repositoryMetricsLabel;
+
     private AuthService authService;
     private SessionManager sessionManager;
 
@@ -27,16 +52,78 @@ public class SettingsController {
         
         // Загружаем имя пользователя
         loadUserInfo();
+        showWriteQueueMetrics();
+        showPoolMetrics();
+        showRepositoryMetrics();
+    }
+    
+    /**
+     * Состояние очереди отложенных записей
+     */
+    private void showWriteQueueMetrics() {
+        WriteBehindQueue queue = DataService.getInstance().getWriteQueue();
+        writeQueueLabel.setText(String.format("Очередь записи: %d (макс. %d), записано %d операций за %d фиксаций, последняя %d мс",
+            queue.getQueueDepth(), queue.getMaxQueueDepth(), queue.getFlushedWrites(), queue.getFlushCount(),
+            queue.getLastFlushMillis()));
+    }
+
+    /**
+     * Метрики пулов соединений (по строке на пул)
+     */
+    private void showPoolMetrics() {
+        poolMetricsLabel.setText(PoolMetricsRegistry.getInstance().dump().strip());
+    }
+
+    /**
+     * Самые медленные по p99 методы репозиториев
+     */
+    private void showRepositoryMetrics() {
+        StringBuilder text = new StringBuilder();
+        RepositoryMetrics.getInstance().getAll().stream()
+            .limit(SLOWEST_METHODS_SHOWN)
+            .forEach(metrics -> text.append(metrics).append('\n'));
+        repositoryMetricsLabel.setText(text.toString().strip());
+    }
+
+    @FXML
+    private void onRefreshMetrics() {
+        showWriteQueueMetrics();
+        showPoolMetrics();
+        showRepositoryMetrics();
+    }
+
+    @FXML
+    private void onCopyMetrics() {
+        ClipboardContent content = new ClipboardContent();
+        content.putString(PoolMetricsRegistry.getInstance().dump() + RepositoryMetrics.getInstance().dump());
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    @FXML
+    private void onExportMetrics() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Экспорт метрик репозиториев");
+        fileChooser.setInitialFileName("repository-metrics.csv");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV файлы", "*.csv"));
+        
+        File file = fileChooser.showSaveDialog(usernameLabel.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        try {
+            RepositoryMetrics.getInstance().exportCsv(file.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert("Ошибка", "Не удалось сохранить метрики: " + e.getMessage());
+        }
     }
 
     private void loadUserInfo() {
-        Long userId = sessionManager.getCurrentUserId();
-        if (userId != null) {
-            // Получаем имя пользователя через репозиторий
-            org.example.repository.UserRepository userRepository = new org.example.repository.impl.UserRepositoryImpl();
-            userRepository.findById(userId).ifPresent(user -> {
-                usernameLabel.setText(user.getUsername());
-            });
+        // Пользователь уже загружен при входе и хранится в сессии: обращаться к БД не нужно
+        User user = sessionManager.getCurrentUser();
+        if (user != null) {
+            usernameLabel.setText(user.getUsername());
         }
     }
 
@@ -69,6 +156,84 @@ public class SettingsController {
         });
     }
 
+    @FXML
+    private void onImportCsv() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Импорт операций из CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV файлы", "*.csv"));
+        
+        File file = fileChooser.showOpenDialog(usernameLabel.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        importStatusLabel.setText("Импорт...");
+        DataService.getInstance().importTransactions(file.toPath(), null).whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = AsyncExecution.unwrap(error);
+                cause.printStackTrace();
+                importStatusLabel.setText("");
+                showAlert("Ошибка", "Не удалось импортировать файл: " + cause.getMessage());
+                return;
+            }
+            
+            importStatusLabel.setText(String.format("Импортировано: %d, пропущено: %d (%.0f строк/с)",
+                result.getImportedRows(), result.getSkippedRows(), result.getRowsPerSecond()));
+            
+            if (!result.isComplete()) {
+                showAlert("Ошибка", "Импорт остановлен: не удалось записать " + result.getFailedRows()
+                    + " строк в базу данных. Записано строк: " + result.getImportedRows());
+            }
+        });
+    }
+
+    @FXML
+    private void onExport() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Экспорт операций");
+        fileChooser.setInitialFileName("transactions.csv");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV файлы", "*.csv"),
+            new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl", "*.ndjson"));
+        
+        File file = fileChooser.showSaveDialog(usernameLabel.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        importStatusLabel.setText("Экспорт...");
+        DataService.getInstance().exportTransactions(file.toPath(), ExportFormat.fromFileName(file.getName()))
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    Throwable cause = AsyncExecution.unwrap(error);
+                    cause.printStackTrace();
+                    importStatusLabel.setText("");
+                    showAlert("Ошибка", "Не удалось выгрузить данные: " + cause.getMessage());
+                    return;
+                }
+                
+                importStatusLabel.setText(String.format("Выгружено: %d (%.1f МБ/с)",
+                    result.getRows(), result.getMegabytesPerSecond()));
+            });
+    }
+
+    @FXML
+    private void onRebuildRollup() {
+        long start = System.nanoTime();
+        DataService.getInstance().rebuildRollup().whenComplete((rows, error) -> {
+            if (error != null) {
+                Throwable cause = AsyncExecution.unwrap(error);
+                cause.printStackTrace();
+                importStatusLabel.setText("");
+                showAlert("Ошибка", "Не удалось пересчитать итоги: " + cause.getMessage());
+                return;
+            }
+            
+            importStatusLabel.setText(String.format("Итоги пересчитаны: %d строк за %d мс",
+                rows, (System.nanoTime() - start) / 1_000_000));
+        });
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle(title);
@@ -3,217 +3,401 @@ package org.example.database;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.example.config.DatabaseConfig;
+import org.example.config.DatabaseType;
+import org.example.config.StorageMode;
+import org.example.database.dialect.SqlDialect;
+import org.example.database.metrics.PoolMetricsRegistry;
+import org.example.database.slowlog.SlowQueryLog;
+import org.example.database.migration.MigrationRunner;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.ResultSet;
+import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Менеджер для управления подключением к БД
- * Использует HikariCP connection pool для эффективной работы
+ * SQLite допускает только одного писателя, поэтому соединения разделены:
+ * - одно соединение на запись, все записи выполняются по очереди в отдельном потоке db-writer;
+ * - пул соединений только для чтения (PRAGMA query_only), читатели в WAL работают параллельно.
+ * Для PostgreSQL схема та же; особенности СУБД берутся из диалекта (database.type).
+ * Приложение работает с общим экземпляром getInstance(); тесты и бенчмарки создают
+ * собственные экземпляры в памяти или во временном файле и закрывают их через close()
  */
-public class DatabaseManager {
+public class DatabaseManager implements AutoCloseable {
+    
+    private static final AtomicInteger MEMORY_DATABASE_COUNTER = new AtomicInteger();
     
     private static DatabaseManager instance;
-    private HikariDataSource dataSource;
+    private final SqlDialect dialect;
+    private final StorageMode storageMode;
+    private final String url;
+    private final SlowQueryLog slowQueryLog;
+    private Path tempFile;
+    
+    // Держит БД в памяти открытой, пока пулы пересоздают свои соединения
+    private Connection memoryAnchor;
+    private HikariDataSource writerDataSource;
+    private HikariDataSource readerDataSource;
+    
+    private final ExecutorService writeExecutor;
+    private volatile Thread writerThread;
+    
+    // Соединение текущей записи; используется только в потоке db-writer
+    private Connection currentWriteConnection;
     
-    private DatabaseManager() {
-        initializeDataSource();
-        initializeDatabase();
+    private final List<Runnable> shutdownListeners = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Менеджер с режимом хранения из конфигурации (database.mode)
+     */
+    public DatabaseManager() {
+        this(DatabaseConfig.getStorageMode());
     }
     
-    public static DatabaseManager getInstance() {
+    public DatabaseManager(StorageMode storageMode) {
+        this.dialect = DatabaseConfig.getDialect();
+        this.storageMode = storageMode;
+        
+        if (storageMode != StorageMode.FILE && dialect.getType() != DatabaseType.SQLITE) {
+            throw new IllegalArgumentException("Storage mode " + storageMode.getName() + " is supported for SQLite only");
+        }
+        this.url = resolveUrl();
+        this.slowQueryLog = new SlowQueryLog(dialect, DatabaseConfig.getSlowQueryThresholdMillis(),
+            DatabaseConfig.getSlowQueryFile(), DatabaseConfig.getSlowQueryMaxBytes(), DatabaseConfig.getSlowQueryMaxFiles());
+        
+        writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+        
+        try {
+            initializeDataSources();
+            initializeDatabase();
+        } catch (RuntimeException e) {
+            // Менеджер с недоступной или недомигрированной БД не возвращается: освобождаем ресурсы
+            closeResources();
+            throw e;
+        }
+    }
+    
+    /**
+     * Отдельная пустая БД в памяти
+     */
+    public static DatabaseManager inMemory() {
+        return new DatabaseManager(StorageMode.MEMORY);
+    }
+    
+    /**
+     * Отдельная пустая БД во временном файле
+     */
+    public static DatabaseManager tempFile() {
+        return new DatabaseManager(StorageMode.TEMP_FILE);
+    }
+    
+    public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
             instance = new DatabaseManager();
         }
         return instance;
     }
     
-    private void initializeDataSource() {
+    /**
+     * URL для режима хранения
+     * Каждая БД в памяти получает своё имя, поэтому экземпляры менеджера не делят данные
+     */
+    private String resolveUrl() {
+        return switch (storageMode) {
+            case FILE -> DatabaseConfig.getUrl();
+            case MEMORY -> openMemoryDatabase();
+            case TEMP_FILE -> createTempFile();
+        };
+    }
+    
+    private String openMemoryDatabase() {
+        // VFS memdb: соединения делят БД без общего кэша, с обычными блокировками файла,
+        // поэтому читатели, как и в файловом режиме, видят только зафиксированные данные
+        String memoryUrl = "jdbc:sqlite:file:/finance-memory-" + MEMORY_DATABASE_COUNTER.incrementAndGet()
+            + "?vfs=memdb";
+        try {
+            memoryAnchor = DriverManager.getConnection(memoryUrl);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open in-memory database", e);
+        }
+        return memoryUrl;
+    }
+    
+    private String createTempFile() {
+        try {
+            tempFile = Files.createTempFile("finance-planner-", ".db");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create temporary database file", e);
+        }
+        return "jdbc:sqlite:" + tempFile.toAbsolutePath();
+    }
+    
+    private void initializeDataSources() {
+        HikariConfig writerConfig = createPoolConfig("finance-writer", false);
+        writerConfig.setMaximumPoolSize(1);
+        writerConfig.setMinimumIdle(1);
+        writerDataSource = new HikariDataSource(writerConfig);
+        
+        HikariConfig readerConfig = createPoolConfig("finance-reader", true);
+        readerConfig.setMaximumPoolSize(DatabaseConfig.getReaderPoolSize());
+        readerConfig.setMinimumIdle(DatabaseConfig.getReaderMinIdle());
+        readerDataSource = new HikariDataSource(readerConfig);
+        slowQueryLog.setPlanDataSource(readerDataSource);
+        
+        logEffectiveSettings();
+    }
+    
+    private HikariConfig createPoolConfig(String poolName, boolean readOnly) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(DatabaseConfig.getUrl());
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setUsername(DatabaseConfig.getUsername());
+        config.setPassword(DatabaseConfig.getPassword());
         
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
+        config.setMetricsTrackerFactory(PoolMetricsRegistry.getInstance());
         
-        dataSource = new HikariDataSource(config);
+        dialect.configurePool(config, readOnly);
+        
+        return config;
+    }
+    
+    /**
+     * Выводит фактические настройки соединения, чтобы сравнивать профили по логам
+     */
+    private void logEffectiveSettings() {
+        try (Connection conn = getReadConnection()) {
+            System.out.println(dialect.describeSettings(conn));
+        } catch (SQLException e) {
+            System.err.println("Failed to read database settings: " + e.getMessage());
+        }
     }
     
     /**
-     * Инициализация схемы БД (создание таблиц)
+     * Инициализация схемы БД (применение миграций)
+     *
+     * @throws IllegalStateException если миграция не удалась: работать на схеме промежуточной версии нельзя
      */
     private void initializeDatabase() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            // Проверяем, нужна ли миграция
-            if (needsMigration(conn)) {
-                System.out.println("Migrating database schema...");
-                migrateDatabase(conn);
-                System.out.println("Migration completed successfully");
-                return;
-            }
-            
-            // Создаём таблицу пользователей
-            String createUsersTable = """
-                CREATE TABLE IF NOT EXISTS users (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    username TEXT NOT NULL UNIQUE,
-                    password_hash TEXT NOT NULL,
-                    email TEXT,
-                    created_at TEXT NOT NULL
-                )
-            """;
-            
-            stmt.execute(createUsersTable);
-            
-            // Создаём таблицу категорий
-            String createCategoriesTable = """
-                CREATE TABLE IF NOT EXISTS categories (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name TEXT NOT NULL,
-                    color TEXT NOT NULL,
-                    type TEXT NOT NULL,
-                    user_id INTEGER NOT NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                )
-            """;
-            
-            stmt.execute(createCategoriesTable);
-            
-            // Создаём таблицу транзакций
-            String createTransactionsTable = """
-                CREATE TABLE IF NOT EXISTS transactions (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    description TEXT NOT NULL,
-                    amount REAL NOT NULL,
-                    date TEXT NOT NULL,
-                    category_id INTEGER,
-                    type TEXT NOT NULL,
-                    user_id INTEGER NOT NULL,
-                    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                )
-            """;
-            
-            stmt.execute(createTransactionsTable);
-            
+        try {
+            runOnWriter(conn -> {
+                MigrationRunner runner = new MigrationRunner(dialect.migrations());
+                int applied = dialect.migrate(conn, runner);
+                
+                if (applied > 0) {
+                    System.out.println("Database schema migrated to V" + runner.getCurrentVersion(conn));
+                }
+                return null;
+            });
             System.out.println("Database initialized successfully");
             
         } catch (SQLException e) {
-            System.err.println("Failed to initialize database: " + e.getMessage());
-            e.printStackTrace();
+            throw new IllegalStateException("Failed to initialize database: " + e.getMessage(), e);
         }
     }
     
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+    
     /**
-     * Проверяет, нужна ли миграция БД
+     * Диалект СУБД, с которой работает менеджер
      */
-    private boolean needsMigration(Connection conn) throws SQLException {
-        // Проверяем существование старых таблиц без user_id
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='table' AND name='categories'")) {
-            
-            if (rs.next()) {
-                // Таблица categories существует, проверяем наличие user_id
-                try (ResultSet columns = stmt.executeQuery("PRAGMA table_info(categories)")) {
-                    while (columns.next()) {
-                        if ("user_id".equals(columns.getString("name"))) {
-                            return false; // user_id уже есть, миграция не нужна
-                        }
-                    }
-                    return true; // user_id нет, нужна миграция
-                }
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+    
+    /**
+     * Получить соединение только для чтения из пула читателей
+     */
+    public Connection getReadConnection() throws SQLException {
+        return slowQueryLog.wrap(readerDataSource.getConnection());
+    }
+    
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+    
+    /**
+     * Выполнить запись в одной транзакции на соединении писателя
+     * Вызовы из разных потоков выполняются строго по очереди. Вложенный вызов
+     * (из уже выполняющейся записи) присоединяется к текущей транзакции
+     */
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        return executeOnWriter(work, true);
+    }
+    
+    /**
+     * Выполнить работу на соединении писателя без открытия транзакции
+     * (для миграций и обслуживания, которые сами управляют транзакциями)
+     */
+    public <T> T runOnWriter(SqlWork<T> work) throws SQLException {
+        return executeOnWriter(work, false);
+    }
+    
+    private <T> T executeOnWriter(SqlWork<T> work, boolean transactional) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            return executeWrite(work, transactional);
+        }
+        
+        Future<T> result = writeExecutor.submit(() -> executeWrite(work, transactional));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database write", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException("Database write failed", cause);
         }
-        return false; // Таблицы нет, миграция не нужна
     }
     
     /**
-     * Мигрирует старую БД к новой схеме с user_id
+     * Выполняется только в потоке db-writer
      */
-    private void migrateDatabase(Connection conn) throws SQLException {
-        try (Statement stmt = conn.createStatement()) {
-            
-            // Создаём таблицу users если её нет
-            String createUsersTable = """
-                CREATE TABLE IF NOT EXISTS users (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    username TEXT NOT NULL UNIQUE,
-                    password_hash TEXT NOT NULL,
-                    email TEXT,
-                    created_at TEXT NOT NULL
-                )
-            """;
-            stmt.execute(createUsersTable);
-            
-            // Создаём пользователя по умолчанию для старых данных
-            String insertDefaultUser = """
-                INSERT OR IGNORE INTO users (id, username, password_hash, email, created_at)
-                VALUES (1, 'default_user', '$2a$12$dummy', NULL, datetime('now'))
-            """;
-            stmt.execute(insertDefaultUser);
-            
-            // Переименовываем старые таблицы
-            stmt.execute("ALTER TABLE categories RENAME TO categories_old");
-            stmt.execute("ALTER TABLE transactions RENAME TO transactions_old");
-            
-            // Создаём новые таблицы с user_id
-            String createCategoriesTable = """
-                CREATE TABLE categories (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name TEXT NOT NULL,
-                    color TEXT NOT NULL,
-                    type TEXT NOT NULL,
-                    user_id INTEGER NOT NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                )
-            """;
-            stmt.execute(createCategoriesTable);
+    private <T> T executeWrite(SqlWork<T> work, boolean transactional) throws SQLException {
+        if (currentWriteConnection != null) {
+            return work.execute(currentWriteConnection);
+        }
+        
+        try (Connection conn = slowQueryLog.wrap(writerDataSource.getConnection())) {
+            currentWriteConnection = conn;
             
-            String createTransactionsTable = """
-                CREATE TABLE transactions (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    description TEXT NOT NULL,
-                    amount REAL NOT NULL,
-                    date TEXT NOT NULL,
-                    category_id INTEGER,
-                    type TEXT NOT NULL,
-                    user_id INTEGER NOT NULL,
-                    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                )
-            """;
-            stmt.execute(createTransactionsTable);
+            if (!transactional) {
+                return work.execute(conn);
+            }
             
-            // Копируем данные из старых таблиц, добавляя user_id = 1
-            stmt.execute("INSERT INTO categories (id, name, color, type, user_id) SELECT id, name, color, type, 1 FROM categories_old");
-            stmt.execute("INSERT INTO transactions (id, description, amount, date, category_id, type, user_id) SELECT id, description, amount, date, category_id, type, 1 FROM transactions_old");
+            conn.setAutoCommit(false);
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
             
-            // Удаляем старые таблицы
-            stmt.execute("DROP TABLE categories_old");
-            stmt.execute("DROP TABLE transactions_old");
+        } finally {
+            currentWriteConnection = null;
         }
     }
     
     /**
-     * Получить соединение с БД из пула
+     * Зарегистрировать действие, выполняемое в начале shutdown(), пока запись в БД ещё доступна
+     * (например, сброс отложенных записей)
      */
-    public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+    public void addShutdownListener(Runnable listener) {
+        shutdownListeners.add(listener);
     }
     
     /**
-     * Закрыть connection pool при завершении приложения
+     * Закрыть пулы соединений при завершении приложения
+     * Сначала выполняет слушателей завершения, затем ожидает уже поставленные в очередь записи.
+     * БД в памяти при этом теряется, временный файл удаляется
      */
     public void shutdown() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
+        for (Runnable listener : shutdownListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("Shutdown listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        
+        writeExecutor.shutdown();
+        try {
+            if (!writeExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Pending database writes did not finish before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Пулы удаляют свои метрики из реестра при закрытии, поэтому снимок берётся до closeResources
+        if (DatabaseConfig.isMetricsDumpOnExit()) {
+            System.out.print("Connection pool metrics:\n" + PoolMetricsRegistry.getInstance().dump());
+        }
+        
+        closeResources();
+        
+        synchronized (DatabaseManager.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        shutdown();
+    }
+    
+    /**
+     * Закрыть пулы и освободить БД в памяти или временный файл
+     */
+    private void closeResources() {
+        writeExecutor.shutdown();
+        slowQueryLog.close();
+        
+        if (readerDataSource != null && !readerDataSource.isClosed()) {
+            readerDataSource.close();
+        }
+        if (writerDataSource != null && !writerDataSource.isClosed()) {
+            writerDataSource.close();
+        }
+        
+        releaseStorage();
+    }
+    
+    private void releaseStorage() {
+        if (memoryAnchor != null) {
+            try {
+                memoryAnchor.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close in-memory database: " + e.getMessage());
+            }
+            memoryAnchor = null;
+        }
+        
+        if (tempFile != null) {
+            try {
+                for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                    Files.deleteIfExists(Path.of(tempFile + suffix));
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to delete temporary database: " + e.getMessage());
+            }
+            tempFile = null;
         }
     }
 }
-
@@ -0,0 +1,118 @@
+package org.example.database;
+
+import org.example.database.dialect.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Помесячные итоги транзакций (таблица rollup_monthly)
+ * Таблица поддерживается триггерами на transactions, поэтому любые записи
+ * (save/update/delete, пакетные операции, импорт, каскадные удаления) сразу отражаются в итогах.
+ * Операции без категории учитываются с category_id = 0.
+ * Выражение месяца и синтаксис триггеров берутся из диалекта СУБД
+ */
+public final class MonthlyRollup {
+    
+    private MonthlyRollup() {
+    }
+    
+    /**
+     * Создать таблицу и триггеры
+     * Триггеры нужно создавать заново после каждого пересоздания таблицы transactions
+     */
+    public static void createTableAndTriggers(Connection conn, SqlDialect dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS rollup_monthly (
+                    user_id BIGINT NOT NULL,
+                    year_month INTEGER NOT NULL,
+                    category_id BIGINT NOT NULL,
+                    type TEXT NOT NULL,
+                    total BIGINT NOT NULL,
+                    count BIGINT NOT NULL,
+                    PRIMARY KEY (user_id, year_month, category_id, type)
+                )""" + dialect.clusteredTableSuffix());
+            
+            List<String> triggers = new ArrayList<>();
+            triggers.addAll(dialect.createTriggerSql("trg_transactions_rollup_insert", "INSERT", "transactions",
+                addRow(dialect, "NEW")));
+            triggers.addAll(dialect.createTriggerSql("trg_transactions_rollup_delete", "DELETE", "transactions",
+                removeRow(dialect, "OLD")));
+            triggers.addAll(dialect.createTriggerSql("trg_transactions_rollup_update",
+                "UPDATE OF amount, date, category_id, type, user_id", "transactions",
+                removeRow(dialect, "OLD") + " " + addRow(dialect, "NEW")));
+            
+            for (String sql : triggers) {
+                stmt.execute(sql);
+            }
+        }
+    }
+    
+    /**
+     * Пересчитать итоги с нуля по таблице transactions (для восстановления после сбоев и ручных правок)
+     *
+     * @return количество строк итогов
+     */
+    public static int rebuild(Connection conn, SqlDialect dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM rollup_monthly");
+            return stmt.executeUpdate("INSERT INTO rollup_monthly (user_id, year_month, category_id, type, total, count) "
+                + "SELECT user_id, " + dialect.yearMonth("date") + ", COALESCE(category_id, 0), type, SUM(ABS(amount)), COUNT(*) "
+                + "FROM transactions GROUP BY 1, 2, 3, 4");
+        }
+    }
+    
+    /**
+     * Сверить итоги с таблицей transactions, ничего не меняя
+     *
+     * @return количество расходящихся строк итогов (0, если итоги верны)
+     */
+    public static long countMismatches(Connection conn, SqlDialect dialect) throws SQLException {
+        String expected = "SELECT user_id, " + dialect.yearMonth("date") + ", COALESCE(category_id, 0), type, "
+            + "SUM(ABS(amount)), COUNT(*) FROM transactions GROUP BY 1, 2, 3, 4";
+        String actual = "SELECT user_id, year_month, category_id, type, total, count FROM rollup_monthly";
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT "
+                 + "(SELECT COUNT(*) FROM (" + expected + " EXCEPT " + actual + ") AS missing) + "
+                 + "(SELECT COUNT(*) FROM (" + actual + " EXCEPT " + expected + ") AS extra)")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    /**
+     * Месяц даты в виде числа yyyyMM, как в колонке year_month
+     */
+    public static int yearMonth(LocalDateTime dateTime) {
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+    
+    /**
+     * Дата совпадает с началом месяца, то есть период с такой границей можно считать по итогам
+     */
+    public static boolean isMonthStart(LocalDateTime dateTime) {
+        return dateTime.getDayOfMonth() == 1 && dateTime.toLocalTime().toSecondOfDay() == 0;
+    }
+    
+    private static String addRow(SqlDialect dialect, String row) {
+        return "INSERT INTO rollup_monthly (user_id, year_month, category_id, type, total, count) VALUES ("
+            + row + ".user_id, " + dialect.yearMonth(row + ".date") + ", COALESCE(" + row + ".category_id, 0), "
+            + row + ".type, ABS(" + row + ".amount), 1) "
+            + "ON CONFLICT (user_id, year_month, category_id, type) "
+            + "DO UPDATE SET total = rollup_monthly.total + excluded.total, count = rollup_monthly.count + 1;";
+    }
+    
+    private static String removeRow(SqlDialect dialect, String row) {
+        String key = "user_id = " + row + ".user_id AND year_month = " + dialect.yearMonth(row + ".date")
+            + " AND category_id = COALESCE(" + row + ".category_id, 0) AND type = " + row + ".type";
+        return "UPDATE rollup_monthly SET total = total - ABS(" + row + ".amount), count = count - 1 WHERE " + key + "; "
+            + "DELETE FROM rollup_monthly WHERE " + key + " AND count <= 0;";
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Единица работы с БД, выполняемая на переданном соединении
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    
+    T execute(Connection conn) throws SQLException;
+}
@@ -0,0 +1,234 @@
+package org.example.database.dialect;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.example.config.DatabaseType;
+import org.example.database.migration.Migration;
+import org.example.database.migration.MigrationRunner;
+import org.example.database.migration.Migrations;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Диалект PostgreSQL
+ * ID возвращаются через RETURNING id, потоковое чтение идёт серверным курсором,
+ * триггеры помесячных итогов реализованы функциями plpgsql
+ */
+public final class PostgresDialect implements SqlDialect {
+    
+    public static final PostgresDialect INSTANCE = new PostgresDialect();
+    
+    private static final String[] ID_COLUMN = {"id"};
+    
+    private PostgresDialect() {
+    }
+    
+    @Override
+    public DatabaseType getType() {
+        return DatabaseType.POSTGRESQL;
+    }
+    
+    @Override
+    public String getDriverClassName() {
+        return "org.postgresql.Driver";
+    }
+    
+    @Override
+    public String getDefaultUrl() {
+        return "jdbc:postgresql://localhost:5432/finance_planner";
+    }
+    
+    @Override
+    public void configurePool(HikariConfig config, boolean readOnly) {
+        // Драйвер собирает пакет INSERT в многострочные INSERT ... VALUES
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        config.setReadOnly(readOnly);
+    }
+    
+    @Override
+    public String describeSettings(Connection conn) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        return "Database " + metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion()
+            + ", driver " + metaData.getDriverVersion();
+    }
+    
+    @Override
+    public List<Migration> migrations() {
+        return Migrations.postgres();
+    }
+    
+    @Override
+    public int migrate(Connection conn, MigrationRunner runner) throws SQLException {
+        return runner.migrate(conn);
+    }
+    
+    /**
+     * Драйвер добавляет к запросу RETURNING id и отдаёт значения через getGeneratedKeys
+     */
+    @Override
+    public PreparedStatement prepareInsert(Connection conn, String sql) throws SQLException {
+        return conn.prepareStatement(sql, ID_COLUMN);
+    }
+    
+    @Override
+    public long[] generatedIds(PreparedStatement pstmt, int rows) throws SQLException {
+        long[] ids = new long[rows];
+        int i = 0;
+        
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            while (keys.next() && i < rows) {
+                ids[i++] = keys.getLong(1);
+            }
+        }
+        
+        if (i != rows) {
+            throw new SQLException("Expected " + rows + " generated ids, got " + i);
+        }
+        return ids;
+    }
+    
+    /**
+     * Драйвер PostgreSQL использует серверный курсор с порциями setFetchSize
+     * только внутри транзакции, иначе весь результат загружается в память
+     */
+    @Override
+    public void beginStreaming(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+    }
+    
+    /**
+     * GENERIC_PLAN (PostgreSQL 16+) строит план для запроса с параметрами $1, $2 без их значений.
+     * На PostgreSQL 12-15 тот же обобщённый план даёт EXPLAIN EXECUTE подготовленного запроса
+     * при plan_cache_mode = force_generic_plan; на более старых серверах план не строится
+     */
+    @Override
+    public List<String> explain(Connection conn, String sql) throws SQLException {
+        int version = conn.getMetaData().getDatabaseMajorVersion();
+        if (version >= 16) {
+            return query(conn, "EXPLAIN (GENERIC_PLAN) " + toPositionalParameters(sql));
+        }
+        if (version >= 12) {
+            return explainPrepared(conn, sql);
+        }
+        return List.of("plan not captured: PostgreSQL " + version + " cannot build a generic plan (12+ required)");
+    }
+    
+    /**
+     * Подготовленный запрос и настройка сеанса удаляются до возврата соединения в пул
+     */
+    private static List<String> explainPrepared(Connection conn, String sql) throws SQLException {
+        int parameters = countParameters(sql);
+        
+        try (Statement stmt = conn.createStatement()) {
+            try {
+                stmt.execute("PREPARE slow_query_plan AS " + toPositionalParameters(sql));
+                stmt.execute("SET plan_cache_mode = force_generic_plan");
+                return query(conn, "EXPLAIN EXECUTE slow_query_plan"
+                    + (parameters > 0 ? "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")" : ""));
+            } finally {
+                stmt.execute("DEALLOCATE ALL");
+                stmt.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+    
+    private static List<String> query(Connection conn, String explain) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(explain)) {
+            while (rs.next()) {
+                plan.add(rs.getString(1));
+            }
+        }
+        
+        return plan;
+    }
+    
+    /**
+     * Параметров '?' вне строковых литералов: столько значений ждёт EXECUTE
+     */
+    private static int countParameters(String sql) {
+        int count = 0;
+        boolean inString = false;
+        
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            }
+            if (c == '?' && !inString) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Заменить '?' на $1, $2: в тексте EXPLAIN драйвер не подставляет параметры
+     */
+    private static String toPositionalParameters(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 8);
+        int index = 0;
+        boolean inString = false;
+        
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            }
+            if (c == '?' && !inString) {
+                result.append('$').append(++index);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Ссылки и структуру страниц сервер проверяет сам; здесь ищутся индексы,
+     * оставшиеся невалидными после прерванного CREATE INDEX CONCURRENTLY
+     */
+    @Override
+    public List<String> checkIntegrity(Connection conn) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT indexrelid::regclass::text FROM pg_index WHERE NOT indisvalid")) {
+            while (rs.next()) {
+                problems.add("Invalid index: " + rs.getString(1));
+            }
+        }
+        
+        return problems;
+    }
+    
+    @Override
+    public String yearMonth(String epochColumn) {
+        return "CAST(to_char(to_timestamp(" + epochColumn + ") AT TIME ZONE 'UTC', 'YYYYMM') AS INTEGER)";
+    }
+    
+    @Override
+    public String clusteredTableSuffix() {
+        return "";
+    }
+    
+    @Override
+    public List<String> createTriggerSql(String name, String event, String table, String body) {
+        return List.of(
+            "CREATE OR REPLACE FUNCTION " + name + "_fn() RETURNS trigger LANGUAGE plpgsql AS $$ BEGIN "
+                + body + " RETURN NULL; END $$",
+            "DROP TRIGGER IF EXISTS " + name + " ON " + table,
+            "CREATE TRIGGER " + name + " AFTER " + event + " ON " + table
+                + " FOR EACH ROW EXECUTE FUNCTION " + name + "_fn()"
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.database.dialect;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.example.config.DatabaseType;
+import org.example.database.migration.Migration;
+import org.example.database.migration.MigrationRunner;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Особенности конкретной СУБД, которые нельзя выразить общим SQL
+ * Репозитории пишут переносимые запросы, а генерацию ID, настройку соединений,
+ * потоковое чтение, схему и триггеры получают через диалект
+ */
+public interface SqlDialect {
+    
+    DatabaseType getType();
+    
+    String getDriverClassName();
+    
+    /**
+     * URL по умолчанию, если database.url не задан
+     */
+    String getDefaultUrl();
+    
+    /**
+     * Настроить пул соединений
+     *
+     * @param readOnly пул только для чтения
+     */
+    void configurePool(HikariConfig config, boolean readOnly);
+    
+    /**
+     * Фактические настройки соединения для лога
+     */
+    String describeSettings(Connection conn) throws SQLException;
+    
+    /**
+     * Шаги миграции схемы для этой СУБД
+     */
+    List<Migration> migrations();
+    
+    /**
+     * Применить миграции на соединении писателя (вне транзакции)
+     *
+     * @return количество применённых шагов
+     */
+    int migrate(Connection conn, MigrationRunner runner) throws SQLException;
+    
+    /**
+     * Подготовить INSERT, после которого можно получить сгенерированные ID
+     */
+    PreparedStatement prepareInsert(Connection conn, String sql) throws SQLException;
+    
+    /**
+     * ID строк, вставленных последним execute/executeBatch запроса из prepareInsert
+     *
+     * @param rows количество вставленных строк
+     */
+    long[] generatedIds(PreparedStatement pstmt, int rows) throws SQLException;
+    
+    /**
+     * Подготовить соединение к потоковому чтению порциями setFetchSize
+     * Изменённые настройки соединения пул сбрасывает при возврате соединения
+     */
+    void beginStreaming(Connection conn) throws SQLException;
+    
+    /**
+     * План выполнения запроса, по строке на узел
+     * Параметры не привязываются: план строится для обобщённых значений
+     */
+    List<String> explain(Connection conn, String sql) throws SQLException;
+    
+    /**
+     * Проверка целостности данных средствами СУБД
+     *
+     * @return описания найденных проблем (пустой список, если всё в порядке)
+     */
+    List<String> checkIntegrity(Connection conn) throws SQLException;
+    
+    /**
+     * SQL-выражение: месяц даты (секунды EpochTime) в виде числа yyyyMM
+     */
+    String yearMonth(String epochColumn);
+    
+    /**
+     * Суффикс CREATE TABLE для таблиц с составным первичным ключом без отдельного rowid
+     */
+    String clusteredTableSuffix();
+    
+    /**
+     * Создать строчный триггер AFTER на таблице
+     *
+     * @param event INSERT, DELETE или UPDATE OF колонки
+     * @param body  SQL-операторы через ';', строки доступны как NEW и OLD
+     */
+    List<String> createTriggerSql(String name, String event, String table, String body);
+    
+    static SqlDialect forType(DatabaseType type) {
+        return switch (type) {
+            case SQLITE -> SqliteDialect.INSTANCE;
+            case POSTGRESQL -> PostgresDialect.INSTANCE;
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.database.dialect;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.example.config.DatabaseConfig;
+import org.example.config.DatabaseType;
+import org.example.database.migration.Migration;
+import org.example.database.migration.MigrationRunner;
+import org.example.database.migration.Migrations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Диалект SQLite: один файл БД, PRAGMA профиля на каждом соединении
+ */
+public final class SqliteDialect implements SqlDialect {
+    
+    public static final SqliteDialect INSTANCE = new SqliteDialect();
+    
+    private SqliteDialect() {
+    }
+    
+    @Override
+    public DatabaseType getType() {
+        return DatabaseType.SQLITE;
+    }
+    
+    @Override
+    public String getDriverClassName() {
+        return "org.sqlite.JDBC";
+    }
+    
+    @Override
+    public String getDefaultUrl() {
+        return "jdbc:sqlite:finance_planner.db";
+    }
+    
+    @Override
+    public void configurePool(HikariConfig config, boolean readOnly) {
+        // PRAGMA профиля применяются драйвером к каждому новому соединению пула
+        DatabaseConfig.getSqlitePragmas().forEach(config::addDataSourceProperty);
+        
+        // Без этого SQLite не проверяет внешние ключи и не выполняет ON DELETE SET NULL / CASCADE
+        config.addDataSourceProperty("foreign_keys", "true");
+        
+        if (readOnly) {
+            config.setConnectionInitSql("PRAGMA query_only = 1");
+        }
+    }
+    
+    /**
+     * Фактические значения PRAGMA, чтобы сравнивать профили по логам
+     */
+    @Override
+    public String describeSettings(Connection conn) throws SQLException {
+        StringBuilder settings = new StringBuilder();
+        
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : DatabaseConfig.getSqlitePragmas().keySet()) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    if (rs.next()) {
+                        settings.append(", ").append(pragma).append('=').append(rs.getString(1));
+                    }
+                }
+            }
+        }
+        
+        return "Database profile '" + DatabaseConfig.getProfile().getName() + "': " + settings.substring(2);
+    }
+    
+    @Override
+    public List<Migration> migrations() {
+        return Migrations.all();
+    }
+    
+    /**
+     * Внешние ключи отключаются на время миграций: при пересоздании таблиц (RENAME, DROP)
+     * они удаляли бы строки каскадом или не давали удалить старую таблицу.
+     * PRAGMA foreign_keys внутри транзакции не действует, поэтому переключается вокруг всех шагов
+     */
+    @Override
+    public int migrate(Connection conn, MigrationRunner runner) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = OFF");
+            try {
+                return runner.migrate(conn);
+            } finally {
+                stmt.execute("PRAGMA foreign_keys = ON");
+            }
+        }
+    }
+    
+    @Override
+    public PreparedStatement prepareInsert(Connection conn, String sql) throws SQLException {
+        return conn.prepareStatement(sql);
+    }
+    
+    /**
+     * SQLite сообщает только последний rowid. Так как запись идёт одной транзакцией
+     * единственного писателя, строки пакета получают подряд идущие ID
+     */
+    @Override
+    public long[] generatedIds(PreparedStatement pstmt, int rows) throws SQLException {
+        long lastId;
+        try (Statement stmt = pstmt.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            lastId = rs.next() ? rs.getLong(1) : 0;
+        }
+        
+        long[] ids = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = lastId - rows + 1 + i;
+        }
+        return ids;
+    }
+    
+    /**
+     * sqlite-jdbc читает строки по мере обхода ResultSet без дополнительной настройки
+     */
+    @Override
+    public void beginStreaming(Connection conn) {
+    }
+    
+    /**
+     * Колонка detail из EXPLAIN QUERY PLAN (SCAN, SEARCH ... USING INDEX, USE TEMP B-TREE)
+     */
+    @Override
+    public List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+        
+        return plan;
+    }
+    
+    /**
+     * PRAGMA quick_check (структура файла и индексов) и foreign_key_check (висячие ссылки)
+     */
+    @Override
+    public List<String> checkIntegrity(Connection conn) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA quick_check")) {
+                while (rs.next()) {
+                    if (!"ok".equals(rs.getString(1))) {
+                        problems.add(rs.getString(1));
+                    }
+                }
+            }
+            
+            try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+                while (rs.next()) {
+                    problems.add("Foreign key violation: " + rs.getString("table") + " rowid " + rs.getLong("rowid")
+                        + " references missing row in " + rs.getString("parent"));
+                }
+            }
+        }
+        
+        return problems;
+    }
+    
+    @Override
+    public String yearMonth(String epochColumn) {
+        return "CAST(strftime('%Y%m', " + epochColumn + ", 'unixepoch') AS INTEGER)";
+    }
+    
+    @Override
+    public String clusteredTableSuffix() {
+        return " WITHOUT ROWID";
+    }
+    
+    @Override
+    public List<String> createTriggerSql(String name, String event, String table, String body) {
+        return List.of("CREATE TRIGGER IF NOT EXISTS " + name + " AFTER " + event + " ON " + table
+            + " BEGIN " + body + " END");
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.database.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одного пула соединений
+ * Hikari вызывает record* из потоков, берущих и возвращающих соединения,
+ * поэтому счётчики - LongAdder/LongAccumulator без блокировок
+ */
+public class PoolMetrics implements IMetricsTracker {
+    
+    private final PoolMetricsRegistry registry;
+    private final String poolName;
+    private final PoolStats poolStats;
+    
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+    
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder createdMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    
+    PoolMetrics(PoolMetricsRegistry registry, String poolName, PoolStats poolStats) {
+        this.registry = registry;
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+    
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        createdCount.increment();
+        createdMillis.add(connectionCreatedMillis);
+    }
+    
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireCount.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+    }
+    
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageCount.increment();
+        usageMillis.add(elapsedBorrowedMillis);
+        maxUsageMillis.accumulate(elapsedBorrowedMillis);
+    }
+    
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+    
+    @Override
+    public void close() {
+        registry.unregister(this);
+    }
+    
+    public String getPoolName() {
+        return poolName;
+    }
+    
+    public int getActiveConnections() {
+        return poolStats.getActiveConnections();
+    }
+    
+    public int getIdleConnections() {
+        return poolStats.getIdleConnections();
+    }
+    
+    public int getTotalConnections() {
+        return poolStats.getTotalConnections();
+    }
+    
+    public int getMaxConnections() {
+        return poolStats.getMaxConnections();
+    }
+    
+    /**
+     * Потоки, ожидающие свободное соединение
+     */
+    public int getPendingThreads() {
+        return poolStats.getPendingThreads();
+    }
+    
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+    
+    /**
+     * Среднее время получения соединения из пула, мкс
+     */
+    public double getAverageAcquireMicros() {
+        long count = acquireCount.sum();
+        return count == 0 ? 0 : acquireNanos.sum() / 1_000.0 / count;
+    }
+    
+    public double getMaxAcquireMicros() {
+        return maxAcquireNanos.get() / 1_000.0;
+    }
+    
+    /**
+     * Среднее время, на которое соединение забирают из пула, мс
+     */
+    public double getAverageUsageMillis() {
+        long count = usageCount.sum();
+        return count == 0 ? 0 : (double) usageMillis.sum() / count;
+    }
+    
+    public long getMaxUsageMillis() {
+        return maxUsageMillis.get();
+    }
+    
+    public long getCreatedConnections() {
+        return createdCount.sum();
+    }
+    
+    public double getAverageCreateMillis() {
+        long count = createdCount.sum();
+        return count == 0 ? 0 : (double) createdMillis.sum() / count;
+    }
+    
+    /**
+     * Сколько раз соединение не удалось получить за connectionTimeout
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: active=%d, idle=%d, total=%d/%d, pending=%d, "
+                + "acquire avg=%.1f us max=%.1f us (%d), usage avg=%.1f ms max=%d ms, "
+                + "created=%d (avg %.1f ms), timeouts=%d",
+            poolName, getActiveConnections(), getIdleConnections(), getTotalConnections(), getMaxConnections(),
+            getPendingThreads(), getAverageAcquireMicros(), getMaxAcquireMicros(), getAcquireCount(),
+            getAverageUsageMillis(), getMaxUsageMillis(), getCreatedConnections(), getAverageCreateMillis(),
+            getTimeouts());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.database.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр метрик пулов соединений внутри процесса
+ * Подключается к HikariCP как MetricsTrackerFactory: каждый созданный пул регистрирует
+ * свои метрики под именем пула, при закрытии пула они удаляются
+ */
+public class PoolMetricsRegistry implements MetricsTrackerFactory {
+    
+    private static PoolMetricsRegistry instance;
+    
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+    
+    private PoolMetricsRegistry() {
+    }
+    
+    public static synchronized PoolMetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new PoolMetricsRegistry();
+        }
+        return instance;
+    }
+    
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        // Пул с тем же именем (новый экземпляр DatabaseManager) заменяет прежнюю запись
+        PoolMetrics metrics = new PoolMetrics(this, poolName, poolStats);
+        pools.put(poolName, metrics);
+        return metrics;
+    }
+    
+    /**
+     * Вызывается при закрытии пула
+     */
+    void unregister(PoolMetrics metrics) {
+        pools.remove(metrics.getPoolName(), metrics);
+    }
+    
+    /**
+     * Метрики пула по имени (finance-writer, finance-reader) или null
+     */
+    public PoolMetrics get(String poolName) {
+        return pools.get(poolName);
+    }
+    
+    public List<PoolMetrics> getAll() {
+        List<PoolMetrics> all = new ArrayList<>(pools.values());
+        all.sort((a, b) -> a.getPoolName().compareTo(b.getPoolName()));
+        return all;
+    }
+    
+    /**
+     * Текстовый снимок метрик всех пулов, по строке на пул
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        for (PoolMetrics metrics : getAll()) {
+            text.append(metrics).append('\n');
+        }
+        return text.toString();
+    }
+}
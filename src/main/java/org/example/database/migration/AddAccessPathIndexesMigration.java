@@ -0,0 +1,37 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V3: индексы под выборки по пользователю
+ * Индексы по возрастанию: SQLite читает их в обратном порядке для ORDER BY date DESC,
+ * а rowid в конце ключа даёт стабильный порядок (date, id) без сортировки
+ */
+class AddAccessPathIndexesMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Индексы по user_id для транзакций и категорий";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // История пользователя по дате: findByUserId, выборки за период
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions (user_id, date)");
+            
+            // Транзакции пользователя в разрезе категорий
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_user_category_date ON transactions (user_id, category_id, date)");
+            
+            // Категории пользователя
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_categories_user ON categories (user_id)");
+        }
+    }
+}
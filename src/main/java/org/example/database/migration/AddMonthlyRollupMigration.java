@@ -0,0 +1,30 @@
+package org.example.database.migration;
+
+import org.example.database.MonthlyRollup;
+import org.example.database.dialect.SqliteDialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * V7: таблица помесячных итогов rollup_monthly с триггерами и начальным заполнением
+ */
+class AddMonthlyRollupMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 7;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Помесячные итоги по категориям (rollup_monthly)";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        MonthlyRollup.createTableAndTriggers(conn, SqliteDialect.INSTANCE);
+        int rows = MonthlyRollup.rebuild(conn, SqliteDialect.INSTANCE);
+        System.out.println("  rollup_monthly: " + rows + " rows");
+    }
+}
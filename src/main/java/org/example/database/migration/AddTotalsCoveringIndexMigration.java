@@ -0,0 +1,31 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V4: покрывающий индекс для агрегатов за период
+ * Все колонки, нужные SUM/GROUP BY, есть в индексе, поэтому агрегаты
+ * считаются по индексу без обращения к строкам таблицы
+ */
+class AddTotalsCoveringIndexMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Покрывающий индекс для сумм по категориям";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_user_date_totals "
+                + "ON transactions (user_id, date, type, category_id, amount)");
+        }
+    }
+}
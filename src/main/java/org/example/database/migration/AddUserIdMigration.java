@@ -0,0 +1,84 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V2: перевод старой БД (без user_id) на схему с пользователями
+ * Старые данные привязываются к пользователю по умолчанию с id = 1
+ */
+class AddUserIdMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Привязка категорий и транзакций к пользователю (user_id)";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        if (!SchemaInspector.columnExists(conn, "categories", "user_id")) {
+            migrateLegacyTables(conn);
+        }
+    }
+    
+    private void migrateLegacyTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            
+            // Создаём пользователя по умолчанию для старых данных
+            stmt.execute("""
+                INSERT OR IGNORE INTO users (id, username, password_hash, email, created_at)
+                VALUES (1, 'default_user', '$2a$12$dummy', NULL, datetime('now'))
+            """);
+            
+            // Переименовываем старые таблицы
+            stmt.execute("ALTER TABLE categories RENAME TO categories_old");
+            stmt.execute("ALTER TABLE transactions RENAME TO transactions_old");
+            
+            // Создаём новые таблицы с user_id
+            stmt.execute("""
+                CREATE TABLE categories (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name TEXT NOT NULL,
+                    color TEXT NOT NULL,
+                    type TEXT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+            
+            stmt.execute("""
+                CREATE TABLE transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description TEXT NOT NULL,
+                    amount REAL NOT NULL,
+                    date TEXT NOT NULL,
+                    category_id INTEGER,
+                    type TEXT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+        }
+        
+        // Копируем данные порциями, добавляя user_id = 1
+        TableCopier.copy(conn, "categories_old", "categories",
+            "id, name, color, type, user_id",
+            "id, name, color, type, 1");
+        TableCopier.copy(conn, "transactions_old", "transactions",
+            "id, description, amount, date, category_id, type, user_id",
+            "id, description, amount, date, category_id, type, 1");
+        
+        // Удаляем старые таблицы
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE categories_old");
+            stmt.execute("DROP TABLE transactions_old");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V8: очистка висячих ссылок, накопленных без проверки внешних ключей
+ * До включения PRAGMA foreign_keys удаление категории оставляло её ID в transactions.category_id.
+ * Ссылки приводятся к тому, что сделали бы ON DELETE SET NULL и ON DELETE CASCADE;
+ * помесячные итоги обновляются триггерами. Индекс по category_id нужен проверке ключа
+ * при удалении категории: без него каждое удаление просматривает transactions целиком
+ * (в PostgreSQL индекс уже создан в V7). SQL общий для SQLite и PostgreSQL
+ */
+class ClearDanglingReferencesMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 8;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Очистка ссылок на удалённые категории и пользователей, индекс по category_id";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int transactions = stmt.executeUpdate("DELETE FROM transactions "
+                + "WHERE NOT EXISTS (SELECT 1 FROM users WHERE users.id = transactions.user_id)");
+            int categories = stmt.executeUpdate("DELETE FROM categories "
+                + "WHERE NOT EXISTS (SELECT 1 FROM users WHERE users.id = categories.user_id)");
+            int uncategorized = stmt.executeUpdate("UPDATE transactions SET category_id = NULL "
+                + "WHERE category_id IS NOT NULL "
+                + "AND NOT EXISTS (SELECT 1 FROM categories WHERE categories.id = transactions.category_id)");
+            
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions (category_id)");
+            
+            System.out.println("  removed " + transactions + " transactions and " + categories
+                + " categories of deleted users, " + uncategorized + " transactions lost a deleted category");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V6: transactions.amount из REAL (рубли) в INTEGER (копейки)
+ * Суммы округляются до копейки один раз при копировании; дальше вся арифметика целочисленная
+ */
+class ConvertAmountsToKopecksMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 6;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Суммы транзакций в INTEGER (копейки)";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE transactions RENAME TO transactions_old");
+            
+            stmt.execute("""
+                CREATE TABLE transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description TEXT NOT NULL,
+                    amount INTEGER NOT NULL,
+                    date INTEGER NOT NULL,
+                    category_id INTEGER,
+                    type TEXT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+        }
+        
+        TableCopier.copy(conn, "transactions_old", "transactions",
+            "id, description, amount, date, category_id, type, user_id",
+            "id, description, CAST(ROUND(amount * 100) AS INTEGER), date, category_id, type, user_id");
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE transactions_old");
+            
+            stmt.execute("CREATE INDEX idx_transactions_user_date ON transactions (user_id, date)");
+            stmt.execute("CREATE INDEX idx_transactions_user_category_date ON transactions (user_id, category_id, date)");
+            stmt.execute("CREATE INDEX idx_transactions_user_date_totals "
+                + "ON transactions (user_id, date, type, category_id, amount)");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V5: transactions.date из TEXT (ISO-8601) в INTEGER (секунды, см. EpochTime)
+ * Таблица пересоздаётся копированием (TableCopier); индексы строятся после копирования,
+ * что быстрее, чем обновлять их на каждой вставке
+ */
+class ConvertTransactionDatesMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 5;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Даты транзакций в INTEGER (epoch seconds)";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE transactions RENAME TO transactions_old");
+            
+            stmt.execute("""
+                CREATE TABLE transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description TEXT NOT NULL,
+                    amount REAL NOT NULL,
+                    date INTEGER NOT NULL,
+                    category_id INTEGER,
+                    type TEXT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+        }
+        
+        // strftime('%s') понимает и 'yyyy-MM-ddTHH:mm', и 'yyyy-MM-ddTHH:mm:ss'
+        TableCopier.copy(conn, "transactions_old", "transactions",
+            "id, description, amount, date, category_id, type, user_id",
+            "id, description, amount, CAST(strftime('%s', date) AS INTEGER), category_id, type, user_id");
+        
+        try (Statement stmt = conn.createStatement()) {
+            // Вместе со старой таблицей удаляются и её индексы
+            stmt.execute("DROP TABLE transactions_old");
+            
+            stmt.execute("CREATE INDEX idx_transactions_user_date ON transactions (user_id, date)");
+            stmt.execute("CREATE INDEX idx_transactions_user_category_date ON transactions (user_id, category_id, date)");
+            stmt.execute("CREATE INDEX idx_transactions_user_date_totals "
+                + "ON transactions (user_id, date, type, category_id, amount)");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V1: базовая схема (пользователи, категории, транзакции)
+ * Использует IF NOT EXISTS, поэтому безопасна для БД, созданных до появления schema_version
+ */
+class CreateBaseSchemaMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Базовая схема: users, categories, transactions";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            
+            // Создаём таблицу пользователей
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS users (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    username TEXT NOT NULL UNIQUE,
+                    password_hash TEXT NOT NULL,
+                    email TEXT,
+                    created_at TEXT NOT NULL
+                )
+            """);
+            
+            // Создаём таблицу категорий
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS categories (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name TEXT NOT NULL,
+                    color TEXT NOT NULL,
+                    type TEXT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+            
+            // Создаём таблицу транзакций
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description TEXT NOT NULL,
+                    amount REAL NOT NULL,
+                    date TEXT NOT NULL,
+                    category_id INTEGER,
+                    type TEXT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.database.migration;
+
+import org.example.database.MonthlyRollup;
+import org.example.database.dialect.PostgresDialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V7 для PostgreSQL: схема, к которой SQLite приходит шагами V1-V7
+ * Суммы и даты - BIGINT (копейки и секунды EpochTime), ID - BIGSERIAL
+ */
+class CreatePostgresSchemaMigration implements Migration {
+    
+    @Override
+    public int getVersion() {
+        return 7;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Схема PostgreSQL: users, categories, transactions, rollup_monthly";
+    }
+    
+    @Override
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS users (
+                    id BIGSERIAL PRIMARY KEY,
+                    username TEXT NOT NULL UNIQUE,
+                    password_hash TEXT NOT NULL,
+                    email TEXT,
+                    created_at TEXT NOT NULL
+                )
+            """);
+            
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS categories (
+                    id BIGSERIAL PRIMARY KEY,
+                    name TEXT NOT NULL,
+                    color TEXT NOT NULL,
+                    type TEXT NOT NULL,
+                    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+            
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS transactions (
+                    id BIGSERIAL PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    amount BIGINT NOT NULL,
+                    date BIGINT NOT NULL,
+                    category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL,
+                    type TEXT NOT NULL,
+                    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+            
+            // В отличие от SQLite, id не входит в ключ индекса неявно: без него
+            // ORDER BY date DESC, id DESC и постраничная выборка потребуют сортировки
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_user_date "
+                + "ON transactions (user_id, date DESC, id DESC)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_user_category_date "
+                + "ON transactions (user_id, category_id, date)");
+            
+            // Покрывающий индекс для агрегатов: index-only scan без чтения строк таблицы
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_user_date_totals "
+                + "ON transactions (user_id, date) INCLUDE (type, category_id, amount)");
+            
+            // PostgreSQL не индексирует внешние ключи сам, а ON DELETE SET NULL ищет строки по category_id
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions (category_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_categories_user ON categories (user_id)");
+        }
+        
+        MonthlyRollup.createTableAndTriggers(conn, PostgresDialect.INSTANCE);
+        MonthlyRollup.rebuild(conn, PostgresDialect.INSTANCE);
+    }
+}
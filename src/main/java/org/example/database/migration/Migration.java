@@ -0,0 +1,26 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Один шаг миграции схемы БД
+ * Шаги применяются строго по возрастанию версии, каждый в своей транзакции
+ */
+public interface Migration {
+    
+    /**
+     * Версия схемы, которую устанавливает этот шаг
+     */
+    int getVersion();
+    
+    /**
+     * Краткое описание изменения (пишется в schema_version)
+     */
+    String getDescription();
+    
+    /**
+     * Применить изменение. Транзакцией управляет MigrationRunner
+     */
+    void migrate(Connection conn) throws SQLException;
+}
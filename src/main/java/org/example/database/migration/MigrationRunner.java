@@ -0,0 +1,105 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Применяет миграции схемы по порядку версий
+ * Текущая версия хранится в таблице schema_version. Каждый шаг выполняется
+ * в отдельной транзакции вместе с записью о версии: при сбое посреди шага
+ * БД остаётся в состоянии предыдущей версии
+ */
+public class MigrationRunner {
+    
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    private final List<Migration> migrations;
+    
+    public MigrationRunner(List<Migration> migrations) {
+        this.migrations = migrations;
+    }
+    
+    /**
+     * Применить все ещё не применённые миграции
+     *
+     * @return количество применённых шагов
+     */
+    public int migrate(Connection conn) throws SQLException {
+        createVersionTable(conn);
+        int currentVersion = getCurrentVersion(conn);
+        int applied = 0;
+        
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= currentVersion) {
+                continue;
+            }
+            
+            apply(conn, migration);
+            currentVersion = migration.getVersion();
+            applied++;
+        }
+        
+        return applied;
+    }
+    
+    /**
+     * Текущая версия схемы (0 - пустая БД)
+     */
+    public int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    private void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TEXT NOT NULL,
+                    duration_ms INTEGER NOT NULL
+                )
+            """);
+        }
+    }
+    
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        System.out.println("Applying migration V" + migration.getVersion() + ": " + migration.getDescription());
+        
+        boolean autoCommit = conn.getAutoCommit();
+        long start = System.nanoTime();
+        
+        try {
+            conn.setAutoCommit(false);
+            
+            migration.migrate(conn);
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            
+            String sql = "INSERT INTO schema_version (version, description, applied_at, duration_ms) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.setString(3, LocalDateTime.now().format(DATE_FORMATTER));
+                pstmt.setLong(4, durationMs);
+                pstmt.executeUpdate();
+            }
+            
+            conn.commit();
+            System.out.println("Migration V" + migration.getVersion() + " completed in " + durationMs + " ms");
+            
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
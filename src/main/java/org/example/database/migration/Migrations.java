@@ -0,0 +1,41 @@
+package org.example.database.migration;
+
+import java.util.List;
+
+/**
+ * Упорядоченный список всех миграций схемы
+ * Новые шаги добавляются только в конец списка со следующим номером версии.
+ * Номера версий общие для всех СУБД: одна и та же версия означает одну и ту же схему
+ */
+public final class Migrations {
+    
+    private Migrations() {
+    }
+    
+    /**
+     * Миграции SQLite: история схемы с V1
+     */
+    public static List<Migration> all() {
+        return List.of(
+            new CreateBaseSchemaMigration(),
+            new AddUserIdMigration(),
+            new AddAccessPathIndexesMigration(),
+            new AddTotalsCoveringIndexMigration(),
+            new ConvertTransactionDatesMigration(),
+            new ConvertAmountsToKopecksMigration(),
+            new AddMonthlyRollupMigration(),
+            new ClearDanglingReferencesMigration()
+        );
+    }
+    
+    /**
+     * Миграции PostgreSQL: новая БД создаётся сразу в схеме V7,
+     * следующие шаги добавляются в оба списка с одинаковым номером
+     */
+    public static List<Migration> postgres() {
+        return List.of(
+            new CreatePostgresSchemaMigration(),
+            new ClearDanglingReferencesMigration()
+        );
+    }
+}
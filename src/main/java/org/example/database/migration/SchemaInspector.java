@@ -0,0 +1,44 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Вспомогательные запросы к метаданным схемы
+ * Используют DatabaseMetaData, поэтому не зависят от СУБД
+ */
+final class SchemaInspector {
+    
+    private SchemaInspector() {
+    }
+    
+    /**
+     * Проверяет существование таблицы
+     */
+    static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (ResultSet tables = conn.getMetaData().getTables(null, null, table, new String[]{"TABLE"})) {
+            while (tables.next()) {
+                // '_' в шаблоне метаданных совпадает с любым символом
+                if (table.equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Проверяет наличие колонки в таблице
+     */
+    static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet columns = conn.getMetaData().getColumns(null, null, table, column)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
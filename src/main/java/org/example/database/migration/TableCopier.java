@@ -0,0 +1,72 @@
+package org.example.database.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Копирование таблицы порциями по диапазонам rowid
+ * Каждая порция - отдельный INSERT ... SELECT, а в лог пишется прогресс копирования.
+ * Все порции выполняются в транзакции миграции (см. MigrationRunner): при сбое таблица
+ * остаётся в прежней версии, но соединение писателя занято на всё время копирования
+ */
+final class TableCopier {
+    
+    /**
+     * Размер порции по умолчанию (строк)
+     */
+    static final int DEFAULT_CHUNK_SIZE = 50_000;
+    
+    private TableCopier() {
+    }
+    
+    /**
+     * Скопировать все строки source в target
+     *
+     * @param targetColumns     список колонок target через запятую
+     * @param selectExpressions выражения над колонками source в том же порядке
+     */
+    static long copy(Connection conn, String source, String target,
+                     String targetColumns, String selectExpressions) throws SQLException {
+        return copy(conn, source, target, targetColumns, selectExpressions, DEFAULT_CHUNK_SIZE);
+    }
+    
+    static long copy(Connection conn, String source, String target,
+                     String targetColumns, String selectExpressions, int chunkSize) throws SQLException {
+        long minRowId;
+        long maxRowId;
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(rowid), MAX(rowid) FROM " + source)) {
+            rs.next();
+            minRowId = rs.getLong(1);
+            if (rs.wasNull()) {
+                return 0; // Таблица пуста
+            }
+            maxRowId = rs.getLong(2);
+        }
+        
+        String sql = "INSERT INTO " + target + " (" + targetColumns + ") "
+            + "SELECT " + selectExpressions + " FROM " + source
+            + " WHERE rowid >= ? AND rowid < ?";
+        
+        long copied = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (long from = minRowId; from <= maxRowId; from += chunkSize) {
+                pstmt.setLong(1, from);
+                pstmt.setLong(2, from + chunkSize);
+                copied += pstmt.executeUpdate();
+                
+                if (maxRowId - minRowId >= chunkSize) {
+                    long done = Math.min(from + chunkSize, maxRowId + 1) - minRowId;
+                    System.out.printf("  %s -> %s: %d%%%n", source, target,
+                        done * 100 / (maxRowId - minRowId + 1));
+                }
+            }
+        }
+        
+        return copied;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.database.slowlog;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Прокси соединения: оборачивает создаваемые Statement и PreparedStatement
+ */
+class ConnectionHandler implements InvocationHandler {
+    
+    private final SlowQueryLog log;
+    private final Connection target;
+    
+    ConnectionHandler(SlowQueryLog log, Connection target) {
+        this.log = log;
+        this.target = target;
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        
+        // CallableStatement не используется и остаётся без обёртки
+        String name = method.getName();
+        if (name.equals("prepareStatement") && result instanceof PreparedStatement statement) {
+            return wrap(PreparedStatement.class, new StatementHandler(log, statement, (String) args[0]));
+        }
+        if (name.equals("createStatement") && result instanceof Statement statement) {
+            return wrap(Statement.class, new StatementHandler(log, statement, null));
+        }
+        return result;
+    }
+    
+    private static Object wrap(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
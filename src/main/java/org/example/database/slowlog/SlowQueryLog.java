@@ -0,0 +1,241 @@
+package org.example.database.slowlog;
+
+import org.example.database.dialect.SqlDialect;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал медленных запросов
+ * Соединения оборачиваются прокси, который измеряет выполнение каждого запроса.
+ * Запрос дольше порога пишется в файл вместе с формой параметров (типы без значений)
+ * и планом выполнения. План и запись в файл выполняет фоновый поток slow-query-log на отдельном
+ * соединении (setPlanDataSource): медленный запрос в потоке db-writer не удлиняет транзакцию записи.
+ * Файл ротируется по размеру в байтах:
+ * slow-queries.log, slow-queries.log.1, ... slow-queries.log.(maxFiles - 1)
+ */
+public class SlowQueryLog {
+    
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    /**
+     * Записей, ожидающих фонового потока; сверх этого записи отбрасываются (см. getDroppedQueries)
+     */
+    private static final int MAX_PENDING_ENTRIES = 1_000;
+    
+    /**
+     * Медленный запрос, переданный фоновому потоку журнала
+     */
+    private static final class Entry {
+        final LocalDateTime time = LocalDateTime.now();
+        final String thread = Thread.currentThread().getName();
+        final String sql;
+        final List<String> parameterShapes;
+        final int batchSize;
+        final long nanos;
+        
+        Entry(String sql, List<String> parameterShapes, int batchSize, long nanos) {
+            this.sql = sql;
+            this.parameterShapes = parameterShapes;
+            this.batchSize = batchSize;
+            this.nanos = nanos;
+        }
+    }
+    
+    private final SqlDialect dialect;
+    private final long thresholdNanos;
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final ThreadPoolExecutor writer;
+    private final AtomicLong droppedQueries = new AtomicLong();
+    
+    private volatile DataSource planDataSource;
+    private volatile long loggedQueries;
+    
+    /**
+     * @param thresholdMillis порог в мс; отрицательное значение выключает журнал
+     */
+    public SlowQueryLog(SqlDialect dialect, long thresholdMillis, Path file, long maxBytes, int maxFiles) {
+        this.dialect = dialect;
+        this.thresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(maxFiles, 1);
+        
+        if (isEnabled()) {
+            writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_PENDING_ENTRIES),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> droppedQueries.incrementAndGet());
+        } else {
+            writer = null;
+        }
+    }
+    
+    /**
+     * Источник соединений для EXPLAIN (пул читателей); без него план не записывается
+     */
+    public void setPlanDataSource(DataSource planDataSource) {
+        this.planDataSource = planDataSource;
+    }
+    
+    public boolean isEnabled() {
+        return thresholdNanos >= 0;
+    }
+    
+    /**
+     * Обернуть соединение; при выключенном журнале возвращает его же без накладных расходов
+     */
+    public Connection wrap(Connection conn) {
+        if (!isEnabled()) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, new ConnectionHandler(this, conn));
+    }
+    
+    /**
+     * Запросов записано в журнал с начала работы
+     */
+    public long getLoggedQueries() {
+        return loggedQueries;
+    }
+    
+    /**
+     * Записей, отброшенных из-за переполнения очереди фонового потока
+     */
+    public long getDroppedQueries() {
+        return droppedQueries.get();
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Дописать ожидающие записи и остановить фоновый поток
+     * Вызывается до закрытия пула, из которого берётся соединение для EXPLAIN
+     */
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Slow query log did not finish writing before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Вызывается прокси после выполнения запроса, в потоке запроса: медленный запрос
+     * только ставится в очередь фонового потока
+     *
+     * @param batchSize  количество наборов параметров для executeBatch, иначе 0
+     */
+    void onExecuted(String sql, List<String> parameterShapes, int batchSize, long nanos) {
+        if (nanos < thresholdNanos || sql == null) {
+            return;
+        }
+        Entry query = new Entry(sql, parameterShapes, batchSize, nanos);
+        writer.execute(() -> write(format(query)));
+    }
+    
+    /**
+     * Текст записи журнала; выполняется в фоновом потоке
+     */
+    private String format(Entry query) {
+        StringBuilder entry = new StringBuilder();
+        entry.append(query.time.format(TIME_FORMATTER))
+            .append(String.format(Locale.ROOT, " slow query %.1f ms (threshold %d ms), thread %s",
+                query.nanos / 1e6, TimeUnit.NANOSECONDS.toMillis(thresholdNanos), query.thread))
+            .append('\n');
+        entry.append("  sql: ").append(query.sql.strip().replaceAll("\\s+", " ")).append('\n');
+        entry.append("  params: ").append(query.parameterShapes);
+        if (query.batchSize > 0) {
+            entry.append(" x ").append(query.batchSize).append(" batch");
+        }
+        entry.append('\n');
+        
+        entry.append("  plan:\n");
+        DataSource dataSource = planDataSource;
+        if (dataSource != null && isExplainable(query.sql)) {
+            // Отдельное соединение видит только зафиксированную схему: план запроса к таблице,
+            // созданной в ещё не зафиксированной транзакции, не строится
+            try (Connection conn = dataSource.getConnection()) {
+                for (String line : dialect.explain(conn, query.sql)) {
+                    entry.append("    ").append(line).append('\n');
+                }
+            } catch (SQLException e) {
+                entry.append("    EXPLAIN failed: ").append(e.getMessage()).append('\n');
+            }
+        } else {
+            entry.append("    n/a\n");
+        }
+        return entry.toString();
+    }
+    
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return head.startsWith("SELECT") || head.startsWith("WITH") || head.startsWith("INSERT")
+            || head.startsWith("UPDATE") || head.startsWith("DELETE");
+    }
+    
+    /**
+     * Дописать запись в файл; выполняется только в фоновом потоке
+     */
+    private void write(String entry) {
+        // Размер файла и записи сравниваются в байтах: кириллица в UTF-8 занимает два байта на символ
+        byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+        try {
+            if (Files.exists(file) && Files.size(file) + bytes.length > maxBytes) {
+                rotate();
+            }
+            Files.write(file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            loggedQueries++;
+            
+        } catch (IOException e) {
+            System.err.println("Failed to write slow query log: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Сдвинуть файлы: .log -> .log.1 -> .log.2, самый старый удаляется
+     */
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 0; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+    
+    private Path rotated(int index) {
+        return index == 0 ? file : file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.database.slowlog;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Прокси запроса: запоминает типы привязанных параметров и измеряет execute*
+ * Для executeQuery измеряется время до получения первой порции строк,
+ * в том числе сортировка и полный просмотр таблицы, если план до них дошёл
+ */
+class StatementHandler implements InvocationHandler {
+    
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    
+    private final SlowQueryLog log;
+    private final Statement target;
+    private final String preparedSql;
+    
+    private final List<String> parameterShapes = new ArrayList<>();
+    private int batchSize;
+    
+    StatementHandler(SlowQueryLog log, Statement target, String preparedSql) {
+        this.log = log;
+        this.target = target;
+        this.preparedSql = preparedSql;
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        
+        if (EXECUTE_METHODS.contains(name)) {
+            long start = System.nanoTime();
+            Object result = invokeTarget(method, args);
+            long elapsed = System.nanoTime() - start;
+            
+            // Для Statement текст запроса передаётся в execute*(sql)
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            boolean batch = name.endsWith("Batch");
+            log.onExecuted(sql, List.copyOf(parameterShapes), batch ? batchSize : 0, elapsed);
+            
+            if (batch) {
+                batchSize = 0;
+            }
+            return result;
+        }
+        
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            recordParameter(index, name.equals("setNull") ? null : args[1]);
+        } else if (name.equals("addBatch")) {
+            batchSize++;
+        } else if (name.equals("clearParameters")) {
+            parameterShapes.clear();
+        } else if (name.equals("clearBatch")) {
+            batchSize = 0;
+        }
+        
+        return invokeTarget(method, args);
+    }
+    
+    private void recordParameter(int index, Object value) {
+        while (parameterShapes.size() < index) {
+            parameterShapes.add("?");
+        }
+        parameterShapes.set(index - 1, value == null ? "NULL" : value.getClass().getSimpleName());
+    }
+    
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
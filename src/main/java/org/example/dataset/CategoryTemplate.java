@@ -0,0 +1,118 @@
+package org.example.dataset;
+
+import org.example.model.TransactionType;
+
+import java.util.List;
+
+/**
+ * Категория генерируемого набора данных и распределение её операций
+ * Регулярная категория (зарплата, аренда) даёт одну операцию в заданный день месяца,
+ * остальные - в среднем perDay операций в день (распределение Пуассона)
+ */
+public final class CategoryTemplate {
+    
+    private final String name;
+    private final String color;
+    private final TransactionType type;
+    private final int dayOfMonth;
+    private final double perDay;
+    private final long meanAmount;
+    private final Season season;
+    
+    private CategoryTemplate(String name, String color, TransactionType type, int dayOfMonth,
+                             double perDay, long meanAmount, Season season) {
+        this.name = name;
+        this.color = color;
+        this.type = type;
+        this.dayOfMonth = dayOfMonth;
+        this.perDay = perDay;
+        this.meanAmount = meanAmount;
+        this.season = season;
+    }
+    
+    /**
+     * Регулярная операция раз в месяц (в коротких месяцах - в последний день)
+     *
+     * @param meanAmount средняя сумма в копейках
+     */
+    public static CategoryTemplate monthly(String name, String color, TransactionType type, int dayOfMonth,
+                                           long meanAmount, Season season) {
+        if (dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new IllegalArgumentException("Day of month out of range: " + dayOfMonth);
+        }
+        return new CategoryTemplate(name, color, type, dayOfMonth, 0, meanAmount, season);
+    }
+    
+    /**
+     * Случайные операции: в среднем perDay в день
+     *
+     * @param meanAmount средняя сумма в копейках
+     */
+    public static CategoryTemplate daily(String name, String color, TransactionType type, double perDay,
+                                         long meanAmount, Season season) {
+        if (perDay <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + perDay);
+        }
+        return new CategoryTemplate(name, color, type, 0, perDay, meanAmount, season);
+    }
+    
+    /**
+     * Категории по умолчанию - те же, что создаются новому пользователю в приложении
+     */
+    public static List<CategoryTemplate> defaults() {
+        return List.of(
+            monthly("Заработанная плата", "#00FFA3", TransactionType.INCOME, 5, 9_000_000, Season.NONE),
+            daily("Премия", "#00D9FF", TransactionType.INCOME, 0.01, 5_000_000, Season.HOLIDAYS),
+            monthly("Инвестиции", "#ADFF00", TransactionType.INCOME, 28, 300_000, Season.NONE),
+            daily("Подарок", "#FFD700", TransactionType.INCOME, 0.01, 500_000, Season.HOLIDAYS),
+            daily("Продукты", "#FF4757", TransactionType.EXPENSE, 1.0, 120_000, Season.HOLIDAYS),
+            daily("Цифровые товары", "#FFA502", TransactionType.EXPENSE, 0.1, 60_000, Season.NONE),
+            daily("Спорт", "#1E90FF", TransactionType.EXPENSE, 0.08, 150_000, Season.SUMMER),
+            monthly("Коммунальные услуги", "#48DBB4", TransactionType.EXPENSE, 15, 600_000, Season.HEATING),
+            monthly("Плата за квартиру", "#FF6348", TransactionType.EXPENSE, 1, 3_500_000, Season.NONE),
+            monthly("Кредит", "#9B59B6", TransactionType.EXPENSE, 20, 1_500_000, Season.NONE),
+            daily("Налоги", "#FF6B9D", TransactionType.EXPENSE, 0.005, 2_000_000, Season.NONE)
+        );
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getColor() {
+        return color;
+    }
+    
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public boolean isMonthly() {
+        return dayOfMonth > 0;
+    }
+    
+    /**
+     * День месяца регулярной операции (0 для случайных)
+     */
+    public int getDayOfMonth() {
+        return dayOfMonth;
+    }
+    
+    /**
+     * Среднее число операций в день (0 для регулярных)
+     */
+    public double getPerDay() {
+        return perDay;
+    }
+    
+    /**
+     * Средняя сумма в копейках
+     */
+    public long getMeanAmount() {
+        return meanAmount;
+    }
+    
+    public Season getSeason() {
+        return season;
+    }
+}
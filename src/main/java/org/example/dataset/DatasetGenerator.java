@@ -0,0 +1,333 @@
+package org.example.dataset;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import org.example.database.DatabaseManager;
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.example.repository.CategoryRepositoryExt;
+import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.UserRepository;
+import org.example.repository.impl.CategoryRepositoryImpl;
+import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.impl.UserRepositoryImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор воспроизводимого набора данных для нагрузочных тестов и бенчмарков
+ * Создаёт пользователей с категориями из шаблонов и заданным числом транзакций:
+ * регулярные платежи приходят раз в месяц, остальные операции - по распределению Пуассона
+ * с сезонными пиками. При одинаковых seed и параметрах на пустой БД результат совпадает до ID.
+ *
+ * История каждого пользователя заканчивается днём перед endDate и тянется назад столько,
+ * сколько нужно для его доли транзакций; частота нерегулярных операций подбирается так,
+ * чтобы история в среднем заняла заданное число лет. Транзакции пишутся в хронологическом
+ * порядке порциями через saveAll (одна порция - одна транзакция БД).
+ * Из командной строки вызывается командой generate (FinancePlannerCli)
+ */
+public class DatasetGenerator {
+    
+    public static final String DEFAULT_USERNAME_PREFIX = "demo";
+    
+    /**
+     * Пароль всех созданных пользователей (чтобы войти в приложение под любым из них)
+     */
+    public static final String PASSWORD = "password";
+    
+    public static final LocalDate DEFAULT_END_DATE = LocalDate.of(2026, 1, 1);
+    public static final int DEFAULT_YEARS = 3;
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    
+    // Минимальная стоимость BCrypt: хеш считается один раз, но генерация не должна ждать
+    private static final int PASSWORD_COST = 4;
+    private static final double AMOUNT_SIGMA = 0.6;
+    private static final double MONTHLY_JITTER = 0.03;
+    private static final double DAYS_PER_MONTH = 365.25 / 12;
+    
+    private final UserRepository userRepository;
+    private final CategoryRepositoryExt categoryRepository;
+    private final TransactionRepositoryExt transactionRepository;
+    private final List<CategoryTemplate> templates;
+    private final long seed;
+    private final LocalDate endDate;
+    private final int batchSize;
+    
+    public DatasetGenerator(DatabaseManager databaseManager, long seed) {
+        this(databaseManager, CategoryTemplate.defaults(), seed, DEFAULT_END_DATE);
+    }
+    
+    public DatasetGenerator(DatabaseManager databaseManager, List<CategoryTemplate> templates, long seed, LocalDate endDate) {
+        this(new UserRepositoryImpl(databaseManager), new CategoryRepositoryImpl(databaseManager),
+            new TransactionRepositoryImpl(databaseManager), templates, seed, endDate, DEFAULT_BATCH_SIZE);
+    }
+    
+    public DatasetGenerator(UserRepository userRepository, CategoryRepositoryExt categoryRepository,
+                            TransactionRepositoryExt transactionRepository, List<CategoryTemplate> templates,
+                            long seed, LocalDate endDate, int batchSize) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("At least one category template is required");
+        }
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionRepository = transactionRepository;
+        this.templates = List.copyOf(templates);
+        this.seed = seed;
+        this.endDate = endDate;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Создать users пользователей (prefix1, prefix2, ...) и всего transactions транзакций,
+     * поровну между пользователями
+     *
+     * @param years средняя длина истории пользователя в годах
+     * @throws IllegalStateException если пользователь с таким именем уже есть или запись не удалась
+     */
+    public GeneratedDataset generate(String usernamePrefix, int users, long transactions, int years) {
+        if (users <= 0 || transactions < 0 || years <= 0) {
+            throw new IllegalArgumentException("Invalid dataset size: users=" + users
+                + ", transactions=" + transactions + ", years=" + years);
+        }
+        
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        String passwordHash = BCrypt.withDefaults().hashToString(PASSWORD_COST, PASSWORD.toCharArray());
+        
+        List<Long> userIds = new ArrayList<>(users);
+        List<List<Category>> categoriesByUser = new ArrayList<>(users);
+        Batch batch = new Batch();
+        
+        for (int u = 0; u < users; u++) {
+            String username = usernamePrefix + (u + 1);
+            if (userRepository.existsByUsername(username)) {
+                throw new IllegalStateException("User already exists: " + username);
+            }
+            
+            User user = new User(username, passwordHash, null);
+            userRepository.save(user);
+            if (user.getId() == null) {
+                throw new IllegalStateException("Failed to save user " + username);
+            }
+            userIds.add(user.getId());
+            
+            List<Category> categories = new ArrayList<>(templates.size());
+            for (CategoryTemplate template : templates) {
+                Category category = new Category(template.getName(), template.getColor(), template.getType());
+                category.setUserId(user.getId());
+                categories.add(category);
+            }
+            categoryRepository.saveAll(categories);
+            categoriesByUser.add(categories);
+            
+            // Остаток от деления достаётся первым пользователям
+            long quota = transactions / users + (u < transactions % users ? 1 : 0);
+            UserHistory history = new UserHistory(random.nextLong(), random, user.getId(), categories, quota, years);
+            history.write(batch);
+        }
+        batch.flush();
+        
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new GeneratedDataset(userIds, categoriesByUser, batch.written,
+            batch.written > 0 ? batch.minId : 0, batch.maxId, elapsedMillis);
+    }
+    
+    public GeneratedDataset generate(int users, long transactions) {
+        return generate(DEFAULT_USERNAME_PREFIX, users, transactions, DEFAULT_YEARS);
+    }
+    
+    /**
+     * Порция транзакций для saveAll
+     */
+    private final class Batch {
+        final List<Transaction> pending = new ArrayList<>(batchSize);
+        long written;
+        long minId = Long.MAX_VALUE;
+        long maxId;
+        
+        void add(Transaction transaction) {
+            pending.add(transaction);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            
+            transactionRepository.saveAll(pending);
+            for (Transaction transaction : pending) {
+                if (transaction.getId() == null) {
+                    throw new IllegalStateException("Failed to save transactions batch");
+                }
+                minId = Math.min(minId, transaction.getId());
+                maxId = Math.max(maxId, transaction.getId());
+            }
+            written += pending.size();
+            pending.clear();
+        }
+    }
+    
+    /**
+     * История одного пользователя
+     * Случайные числа каждого дня берутся из собственного генератора (seed пользователя + день),
+     * поэтому день можно сгенерировать повторно: сначала история проходится назад от endDate
+     * с подсчётом операций, чтобы найти первый день, затем пишется вперёд
+     */
+    private final class UserHistory {
+        final long userSeed;
+        final Long userId;
+        final List<Category> categories;
+        final long quota;
+        
+        // Уровень доходов и расходов пользователя
+        final double userScale;
+        
+        // Множитель частоты нерегулярных операций под заданную длину истории
+        final double rateScale;
+        
+        UserHistory(long userSeed, SplittableRandom random, Long userId, List<Category> categories, long quota, int years) {
+            this.userSeed = userSeed;
+            this.userId = userId;
+            this.categories = categories;
+            this.quota = quota;
+            this.userScale = Math.exp(0.3 * random.nextGaussian());
+            
+            double monthlyPerDay = 0;
+            double dailyPerDay = 0;
+            for (CategoryTemplate template : templates) {
+                if (template.isMonthly()) {
+                    monthlyPerDay += 1 / DAYS_PER_MONTH;
+                } else {
+                    dailyPerDay += template.getPerDay() * template.getSeason().average();
+                }
+            }
+            
+            double targetPerDay = (double) quota / (years * 365.25);
+            this.rateScale = dailyPerDay > 0 ? Math.max(targetPerDay - monthlyPerDay, 0) / dailyPerDay : 0;
+        }
+        
+        void write(Batch batch) {
+            if (quota == 0) {
+                return;
+            }
+            
+            // Проход назад: первый день истории и сколько его операций отбросить
+            LocalDate day = endDate;
+            long remaining = quota;
+            int skip;
+            while (true) {
+                day = day.minusDays(1);
+                int count = sum(drawCounts(randomFor(day), day));
+                if (count >= remaining) {
+                    skip = (int) (count - remaining);
+                    break;
+                }
+                remaining -= count;
+            }
+            
+            for (; day.isBefore(endDate); day = day.plusDays(1)) {
+                SplittableRandom random = randomFor(day);
+                List<Transaction> events = events(random, day, drawCounts(random, day));
+                for (int i = skip; i < events.size(); i++) {
+                    batch.add(events.get(i));
+                }
+                skip = 0;
+            }
+        }
+        
+        SplittableRandom randomFor(LocalDate day) {
+            return new SplittableRandom(userSeed ^ (day.toEpochDay() * 0x9E3779B97F4A7C15L));
+        }
+        
+        /**
+         * Число операций каждой категории за день (первые обращения к генератору дня)
+         */
+        int[] drawCounts(SplittableRandom random, LocalDate day) {
+            int[] counts = new int[templates.size()];
+            for (int i = 0; i < counts.length; i++) {
+                CategoryTemplate template = templates.get(i);
+                if (template.isMonthly()) {
+                    int paymentDay = Math.min(template.getDayOfMonth(), day.lengthOfMonth());
+                    counts[i] = day.getDayOfMonth() == paymentDay ? 1 : 0;
+                } else {
+                    double rate = template.getPerDay() * rateScale * template.getSeason().factor(day.getMonthValue());
+                    counts[i] = poisson(random, rate);
+                }
+            }
+            return counts;
+        }
+        
+        /**
+         * Операции дня в порядке времени
+         */
+        List<Transaction> events(SplittableRandom random, LocalDate day, int[] counts) {
+            List<Transaction> events = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                CategoryTemplate template = templates.get(i);
+                for (int n = 0; n < counts[i]; n++) {
+                    double factor;
+                    LocalDateTime time;
+                    if (template.isMonthly()) {
+                        // Регулярный платёж: сумма почти постоянна, сезон меняет её, а не частоту
+                        factor = template.getSeason().factor(day.getMonthValue()) * (1 + MONTHLY_JITTER * random.nextGaussian());
+                        time = day.atTime(9, 0).plusSeconds(random.nextInt(9 * 3600));
+                    } else {
+                        factor = Math.exp(AMOUNT_SIGMA * random.nextGaussian() - AMOUNT_SIGMA * AMOUNT_SIGMA / 2);
+                        time = day.atTime(8, 0).plusSeconds(random.nextInt(15 * 3600));
+                    }
+                    
+                    long amount = Math.max(100, Math.round(template.getMeanAmount() * userScale * factor));
+                    Category category = categories.get(i);
+                    Transaction transaction = new Transaction(template.getName(), signed(amount, template), time,
+                        category, template.getType());
+                    transaction.setUserId(userId);
+                    events.add(transaction);
+                }
+            }
+            events.sort(Comparator.comparing(Transaction::getDate));
+            return events;
+        }
+    }
+    
+    private static long signed(long amount, CategoryTemplate template) {
+        return template.getType() == TransactionType.EXPENSE ? -amount : amount;
+    }
+    
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+    
+    /**
+     * Случайная величина Пуассона; при большой интенсивности - нормальное приближение
+     */
+    private static int poisson(SplittableRandom random, double rate) {
+        if (rate <= 0) {
+            return 0;
+        }
+        if (rate > 30) {
+            return (int) Math.max(0, Math.round(rate + Math.sqrt(rate) * random.nextGaussian()));
+        }
+        
+        double limit = Math.exp(-rate);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+}
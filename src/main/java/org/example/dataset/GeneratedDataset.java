@@ -0,0 +1,68 @@
+package org.example.dataset;
+
+import org.example.model.Category;
+
+import java.util.List;
+
+/**
+ * Итог генерации: созданные пользователи, их категории и диапазон ID транзакций
+ */
+public class GeneratedDataset {
+    
+    private final List<Long> userIds;
+    private final List<List<Category>> categoriesByUser;
+    private final long transactionCount;
+    private final long minTransactionId;
+    private final long maxTransactionId;
+    private final long elapsedMillis;
+    
+    GeneratedDataset(List<Long> userIds, List<List<Category>> categoriesByUser, long transactionCount,
+                     long minTransactionId, long maxTransactionId, long elapsedMillis) {
+        this.userIds = userIds;
+        this.categoriesByUser = categoriesByUser;
+        this.transactionCount = transactionCount;
+        this.minTransactionId = minTransactionId;
+        this.maxTransactionId = maxTransactionId;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+    
+    /**
+     * Категории пользователя в порядке шаблонов (индекс совпадает с getUserIds)
+     */
+    public List<List<Category>> getCategoriesByUser() {
+        return categoriesByUser;
+    }
+    
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+    
+    /**
+     * Наименьший ID созданной транзакции (0, если транзакций нет)
+     */
+    public long getMinTransactionId() {
+        return minTransactionId;
+    }
+    
+    public long getMaxTransactionId() {
+        return maxTransactionId;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? transactionCount * 1000 / elapsedMillis : transactionCount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d users, %d transactions in %d ms (%d rows/s)",
+            userIds.size(), transactionCount, elapsedMillis, getRowsPerSecond());
+    }
+}
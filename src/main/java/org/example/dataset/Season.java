@@ -0,0 +1,49 @@
+package org.example.dataset;
+
+/**
+ * Сезонность категории: множитель по месяцам (январь - первый)
+ * Для регулярных платежей множитель меняет сумму, для остальных - частоту операций
+ */
+public enum Season {
+    
+    NONE(1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1),
+    
+    /**
+     * Новогодние праздники: пик в декабре
+     */
+    HOLIDAYS(1.2, 0.8, 0.9, 0.9, 1.0, 0.9, 0.9, 0.9, 0.9, 1.0, 1.3, 2.5),
+    
+    /**
+     * Отпуска и активный отдых летом
+     */
+    SUMMER(0.6, 0.6, 0.8, 0.9, 1.2, 1.8, 2.2, 2.0, 1.1, 0.8, 0.6, 0.7),
+    
+    /**
+     * Отопительный сезон
+     */
+    HEATING(1.6, 1.6, 1.4, 1.1, 0.8, 0.6, 0.6, 0.6, 0.7, 1.0, 1.4, 1.6);
+    
+    private final double[] factors;
+    
+    Season(double... factors) {
+        this.factors = factors;
+    }
+    
+    /**
+     * @param month номер месяца 1..12
+     */
+    public double factor(int month) {
+        return factors[month - 1];
+    }
+    
+    /**
+     * Средний множитель за год
+     */
+    public double average() {
+        double sum = 0;
+        for (double factor : factors) {
+            sum += factor;
+        }
+        return sum / factors.length;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.io;
+
+import org.example.model.Category;
+import org.example.model.TransactionType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Категории одного пользователя, загруженные из репозитория (для пакетных задач без DataService)
+ */
+public class CategoryIndex implements CategoryLookup {
+    
+    private final Map<Long, Category> byId = new HashMap<>();
+    private final Map<String, Category> byName = new HashMap<>();
+    
+    public CategoryIndex(List<Category> categories) {
+        for (Category category : categories) {
+            byId.put(category.getId(), category);
+            // При совпадении имён остаётся первая категория в порядке загрузки
+            byName.putIfAbsent(key(category.getName(), category.getType()), category);
+        }
+    }
+    
+    @Override
+    public Category getCategoryById(Long id) {
+        return byId.get(id);
+    }
+    
+    @Override
+    public Category getCategoryByName(String name, TransactionType type) {
+        return byName.get(key(name, type));
+    }
+    
+    public int size() {
+        return byId.size();
+    }
+    
+    private static String key(String name, TransactionType type) {
+        return type.name() + ':' + name.toLowerCase(Locale.ROOT);
+    }
+}
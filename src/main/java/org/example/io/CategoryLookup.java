@@ -0,0 +1,21 @@
+package org.example.io;
+
+import org.example.model.Category;
+import org.example.model.TransactionType;
+
+/**
+ * Поиск категорий пользователя для импорта и выгрузки
+ * В приложении - DataService (категории текущего пользователя), без UI - CategoryIndex
+ */
+public interface CategoryLookup {
+    
+    /**
+     * Категория по ID или null
+     */
+    Category getCategoryById(Long id);
+    
+    /**
+     * Категория по имени и типу (без учёта регистра) или null
+     */
+    Category getCategoryByName(String name, TransactionType type);
+}
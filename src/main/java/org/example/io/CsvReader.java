@@ -0,0 +1,114 @@
+package org.example.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковый разбор CSV (RFC 4180): кавычки, экранирование "", переводы строк внутри полей
+ * Читает по одной записи, поэтому расход памяти не зависит от размера файла
+ */
+public class CsvReader implements Closeable {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> record = new ArrayList<>();
+    private long lineNumber;
+    
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+    
+    /**
+     * Прочитать следующую запись
+     *
+     * @return поля записи или null в конце файла
+     */
+    public String[] readRecord() throws IOException {
+        record.clear();
+        field.setLength(0);
+        
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at line " + lineNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n' && next != -1) {
+                    position--; // '\r' без '\n' - конец записи, символ возвращаем в буфер
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        
+        record.add(field.toString());
+        return record.toArray(new String[0]);
+    }
+    
+    /**
+     * Номер строки файла, на которой закончилась последняя запись
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+    
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,294 @@
+package org.example.io;
+
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.util.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Импорт транзакций из CSV (выписки банка, выгрузки других программ)
+ * Файл читается потоково, строки пишутся в БД порциями через saveAll:
+ * одна порция - одна транзакция БД, в памяти держится не больше одной порции.
+ * Если порция не записалась, импорт останавливается: уже записанные порции остаются в БД,
+ * а строки порции учитываются как незаписанные
+ */
+public class CsvTransactionImporter {
+    
+    public static final int DEFAULT_BATCH_SIZE = 5_000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    
+    private final TransactionRepositoryExt transactionRepository;
+    private final CategoryLookup categoryLookup;
+    private final int batchSize;
+    
+    public CsvTransactionImporter(TransactionRepositoryExt transactionRepository, CategoryLookup categoryLookup) {
+        this(transactionRepository, categoryLookup, DEFAULT_BATCH_SIZE);
+    }
+    
+    public CsvTransactionImporter(TransactionRepositoryExt transactionRepository, CategoryLookup categoryLookup, int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.categoryLookup = categoryLookup;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Импортировать файл в UTF-8
+     * Категории ищутся через CategoryLookup среди категорий пользователя
+     */
+    public ImportResult importFile(Path file, Long userId, ImportProgressListener listener) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, userId, listener);
+        }
+    }
+    
+    public ImportResult importFrom(BufferedReader reader, Long userId, ImportProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        
+        CsvReader csv = new CsvReader(reader, detectDelimiter(reader));
+        String[] header = csv.readRecord();
+        if (header == null) {
+            return new ImportResult(0, 0, 0, 0, System.nanoTime() - start, List.of());
+        }
+        ColumnMapping columns = ColumnMapping.fromHeader(header);
+        
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        Map<String, Category> categoriesByName = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        long imported = 0;
+        long skipped = 0;
+        long uncategorized = 0;
+        long failed = 0;
+        
+        String[] record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.length == 1 && record[0].isBlank()) {
+                continue; // Пустая строка
+            }
+            
+            Transaction transaction;
+            try {
+                transaction = parseTransaction(record, columns, userId, categoriesByName);
+            } catch (RuntimeException e) {
+                skipped++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Line " + csv.getLineNumber() + ": " + e.getMessage());
+                }
+                continue;
+            }
+            
+            if (transaction.getCategoryId() == null) {
+                uncategorized++;
+            }
+            
+            batch.add(transaction);
+            if (batch.size() >= batchSize) {
+                if (flush(batch)) {
+                    imported += batch.size();
+                } else {
+                    failed = batch.size();
+                    errors.add("Line " + csv.getLineNumber() + ": failed to write " + failed + " rows, import stopped");
+                    break;
+                }
+                batch.clear();
+                if (listener != null) {
+                    listener.onProgress(imported, System.nanoTime() - start);
+                }
+            }
+        }
+        
+        if (failed == 0 && !batch.isEmpty()) {
+            if (flush(batch)) {
+                imported += batch.size();
+                if (listener != null) {
+                    listener.onProgress(imported, System.nanoTime() - start);
+                }
+            } else {
+                failed = batch.size();
+                errors.add("Line " + csv.getLineNumber() + ": failed to write " + failed + " rows");
+            }
+        }
+        
+        return new ImportResult(imported, skipped, uncategorized, failed, System.nanoTime() - start, errors);
+    }
+    
+    /**
+     * Записать порцию
+     * Репозиторий не бросает исключений, поэтому ошибка видна по счётчику RepositoryErrors
+     *
+     * @return false, если порция не записана (транзакция порции откатилась)
+     */
+    private boolean flush(List<Transaction> batch) {
+        int errorsBefore = RepositoryErrors.count();
+        transactionRepository.saveAll(batch);
+        return RepositoryErrors.count() == errorsBefore;
+    }
+    
+    private Transaction parseTransaction(String[] record, ColumnMapping columns, Long userId,
+                                         Map<String, Category> categoriesByName) {
+        LocalDateTime date = parseDate(columns.get(record, columns.date));
+        long amount = Money.parse(columns.get(record, columns.amount));
+        
+        String typeValue = columns.get(record, columns.type);
+        TransactionType type = typeValue.isEmpty()
+            ? (amount < 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+            : parseType(typeValue);
+        
+        // Расходы хранятся с минусом, доходы с плюсом
+        amount = type == TransactionType.EXPENSE ? -Math.abs(amount) : Math.abs(amount);
+        
+        Category category = resolveCategory(columns.get(record, columns.category), type, categoriesByName);
+        
+        Transaction transaction = new Transaction(columns.get(record, columns.description), amount, date, category, type);
+        transaction.setUserId(userId);
+        return transaction;
+    }
+    
+    /**
+     * Категория по ID или по имени; null, если не найдена
+     */
+    private Category resolveCategory(String value, TransactionType type, Map<String, Category> categoriesByName) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        
+        String key = type.name() + ':' + value;
+        if (categoriesByName.containsKey(key)) {
+            return categoriesByName.get(key);
+        }
+        
+        Category category = null;
+        if (isDigits(value)) {
+            category = categoryLookup.getCategoryById(Long.parseLong(value));
+        }
+        if (category == null) {
+            category = categoryLookup.getCategoryByName(value, type);
+        }
+        
+        categoriesByName.put(key, category);
+        return category;
+    }
+    
+    /**
+     * Дата в форматах yyyy-MM-dd[THH:mm[:ss]] или dd.MM.yyyy[ HH:mm[:ss]]
+     * Разбирается по позициям символов, без DateTimeFormatter
+     */
+    static LocalDateTime parseDate(String value) {
+        int year;
+        int month;
+        int day;
+        
+        if (value.length() >= 10 && value.charAt(4) == '-' && value.charAt(7) == '-') {
+            year = Integer.parseInt(value, 0, 4, 10);
+            month = Integer.parseInt(value, 5, 7, 10);
+            day = Integer.parseInt(value, 8, 10, 10);
+        } else if (value.length() >= 10 && value.charAt(2) == '.' && value.charAt(5) == '.') {
+            day = Integer.parseInt(value, 0, 2, 10);
+            month = Integer.parseInt(value, 3, 5, 10);
+            year = Integer.parseInt(value, 6, 10, 10);
+        } else {
+            throw new DateTimeException("Unsupported date format: " + value);
+        }
+        
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (value.length() >= 16) {
+            hour = Integer.parseInt(value, 11, 13, 10);
+            minute = Integer.parseInt(value, 14, 16, 10);
+            if (value.length() >= 19) {
+                second = Integer.parseInt(value, 17, 19, 10);
+            }
+        }
+        
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+    
+    private static TransactionType parseType(String value) {
+        String normalized = value.toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "income", "доход" -> TransactionType.INCOME;
+            case "expense", "расход" -> TransactionType.EXPENSE;
+            default -> throw new IllegalArgumentException("Unknown transaction type: " + value);
+        };
+    }
+    
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Разделитель по первой строке: ';' (Excel в русской локали) или ','
+     */
+    private static char detectDelimiter(BufferedReader reader) throws IOException {
+        reader.mark(64 * 1024);
+        String firstLine = reader.readLine();
+        reader.reset();
+        
+        if (firstLine == null) {
+            return ',';
+        }
+        return firstLine.chars().filter(c -> c == ';').count() > firstLine.chars().filter(c -> c == ',').count()
+            ? ';' : ',';
+    }
+    
+    /**
+     * Номера колонок по заголовку файла (-1, если колонки нет)
+     */
+    static class ColumnMapping {
+        int date = -1;
+        int description = -1;
+        int amount = -1;
+        int category = -1;
+        int type = -1;
+        
+        static ColumnMapping fromHeader(String[] header) throws IOException {
+            ColumnMapping mapping = new ColumnMapping();
+            
+            for (int i = 0; i < header.length; i++) {
+                String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                switch (name) {
+                    case "date", "datetime", "дата" -> mapping.date = i;
+                    case "description", "comment", "описание", "комментарий", "назначение" -> mapping.description = i;
+                    case "amount", "sum", "сумма" -> mapping.amount = i;
+                    case "category", "category_id", "категория" -> mapping.category = i;
+                    case "type", "тип" -> mapping.type = i;
+                    default -> {
+                        // Лишние колонки пропускаем
+                    }
+                }
+            }
+            
+            if (mapping.date < 0 || mapping.amount < 0) {
+                throw new IOException("CSV header must contain date and amount columns");
+            }
+            return mapping;
+        }
+        
+        /**
+         * Значение колонки без пробелов по краям; пустая строка, если колонки нет
+         */
+        String get(String[] record, int index) {
+            return index >= 0 && index < record.length ? record[index].trim() : "";
+        }
+    }
+}
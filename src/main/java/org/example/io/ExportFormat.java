@@ -0,0 +1,25 @@
+package org.example.io;
+
+/**
+ * Формат выгрузки транзакций
+ */
+public enum ExportFormat {
+    
+    /**
+     * CSV с заголовком, совместимый с CsvTransactionImporter
+     */
+    CSV,
+    
+    /**
+     * JSON Lines: один JSON-объект на строку
+     */
+    NDJSON;
+    
+    /**
+     * Формат по расширению файла (.jsonl, .ndjson - NDJSON, иначе CSV)
+     */
+    public static ExportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.io;
+
+/**
+ * Итог выгрузки: количество строк, объём и скорость записи
+ */
+public class ExportResult {
+    
+    private final long rows;
+    private final long bytes;
+    private final long elapsedNanos;
+    
+    public ExportResult(long rows, long bytes, long elapsedNanos) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Скорость записи, МБ/с
+     */
+    public double getMegabytesPerSecond() {
+        return elapsedNanos > 0 ? bytes / (1024.0 * 1024.0) * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Exported %d rows, %.1f MB in %.2f s (%.1f MB/s)",
+            rows, bytes / (1024.0 * 1024.0), elapsedNanos / 1_000_000_000.0, getMegabytesPerSecond());
+    }
+}
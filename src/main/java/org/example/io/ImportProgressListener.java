@@ -0,0 +1,14 @@
+package org.example.io;
+
+/**
+ * Получает прогресс импорта после записи каждой порции
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+    
+    /**
+     * @param rowsImported  сколько строк уже записано в БД
+     * @param elapsedNanos  время с начала импорта
+     */
+    void onProgress(long rowsImported, long elapsedNanos);
+}
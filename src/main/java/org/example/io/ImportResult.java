@@ -0,0 +1,80 @@
+package org.example.io;
+
+import java.util.List;
+
+/**
+ * Итог импорта: количество строк, пропуски, незаписанные строки и скорость
+ */
+public class ImportResult {
+    
+    private final long importedRows;
+    private final long skippedRows;
+    private final long uncategorizedRows;
+    private final long failedRows;
+    private final long elapsedNanos;
+    private final List<String> errors;
+    
+    public ImportResult(long importedRows, long skippedRows, long uncategorizedRows, long failedRows,
+                        long elapsedNanos, List<String> errors) {
+        this.importedRows = importedRows;
+        this.skippedRows = skippedRows;
+        this.uncategorizedRows = uncategorizedRows;
+        this.failedRows = failedRows;
+        this.elapsedNanos = elapsedNanos;
+        this.errors = errors;
+    }
+    
+    public long getImportedRows() {
+        return importedRows;
+    }
+    
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+    
+    /**
+     * Строки, для которых не нашлась категория (импортированы без категории)
+     */
+    public long getUncategorizedRows() {
+        return uncategorizedRows;
+    }
+    
+    /**
+     * Строки порции, которую не удалось записать в БД (импорт на ней остановлен)
+     */
+    public long getFailedRows() {
+        return failedRows;
+    }
+    
+    /**
+     * Все прочитанные строки записаны или пропущены из-за ошибок разбора
+     */
+    public boolean isComplete() {
+        return failedRows == 0;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Первые ошибки разбора (не более нескольких десятков)
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    /**
+     * Скорость импорта, строк в секунду
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? importedRows * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+    
+    @Override
+    public String toString() {
+        String summary = String.format("Imported %d rows (%d skipped, %d without category) in %.2f s, %.0f rows/s",
+            importedRows, skippedRows, uncategorizedRows, elapsedNanos / 1_000_000_000.0, getRowsPerSecond());
+        return isComplete() ? summary : summary + "; stopped: " + failedRows + " rows not written";
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.io;
+
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.util.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Выгрузка транзакций пользователя в CSV или JSON Lines
+ * Строки читаются из БД курсором (streamByUserId) и сразу пишутся в буферизованный канал,
+ * поэтому расход памяти не зависит от размера истории
+ */
+public class TransactionExporter {
+    
+    private static final int BUFFER_SIZE = 256 * 1024;
+    
+    private final TransactionRepositoryExt transactionRepository;
+    private final CategoryLookup categoryLookup;
+    
+    public TransactionExporter(TransactionRepositoryExt transactionRepository, CategoryLookup categoryLookup) {
+        this.transactionRepository = transactionRepository;
+        this.categoryLookup = categoryLookup;
+    }
+    
+    /**
+     * Выгрузить транзакции пользователя в файл
+     * Имена категорий берутся из CategoryLookup
+     *
+     * @throws IOException если файл не записан или чтение из БД прервалось;
+     *                     недописанный файл в этом случае удаляется
+     */
+    public ExportResult export(Long userId, ExportFormat format, Path file) throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        boolean complete = false;
+        
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                
+                RowWriter rowWriter = new RowWriter(writer, format);
+                rowWriter.writeHeader();
+                
+                // Репозиторий не бросает исключений: ошибка посреди курсора видна только по счётчику
+                // RepositoryErrors, а вернувшееся число строк - лишь часть истории
+                int errorsBefore = RepositoryErrors.count();
+                try {
+                    rows = transactionRepository.streamByUserId(userId, rowWriter::write);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (RepositoryErrors.count() != errorsBefore) {
+                    throw new IOException("Failed to read transactions from the database after " + rows + " rows");
+                }
+            }
+            complete = true;
+            
+        } finally {
+            if (!complete) {
+                deletePartialFile(file);
+            }
+        }
+        
+        return new ExportResult(rows, Files.size(file), System.nanoTime() - start);
+    }
+    
+    private static void deletePartialFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete incomplete export " + file + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Форматирует строки в один переиспользуемый StringBuilder
+     */
+    private class RowWriter {
+        private final Writer writer;
+        private final ExportFormat format;
+        private final StringBuilder line = new StringBuilder(256);
+        
+        RowWriter(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+        
+        void writeHeader() throws IOException {
+            if (format == ExportFormat.CSV) {
+                writer.write("id,date,description,amount,category,type\n");
+            }
+        }
+        
+        void write(Transaction transaction) {
+            line.setLength(0);
+            
+            Category category = transaction.getCategoryId() != null
+                ? categoryLookup.getCategoryById(transaction.getCategoryId())
+                : null;
+            String categoryName = category != null ? category.getName() : "";
+            
+            if (format == ExportFormat.CSV) {
+                line.append(transaction.getId()).append(',');
+                appendDate(transaction.getDate());
+                line.append(',');
+                appendCsv(transaction.getDescription());
+                line.append(',');
+                Money.appendTo(line, transaction.getAmount());
+                line.append(',');
+                appendCsv(categoryName);
+                line.append(',').append(transaction.getType().name());
+            } else {
+                line.append("{\"id\":").append(transaction.getId());
+                line.append(",\"date\":\"");
+                appendDate(transaction.getDate());
+                line.append("\",\"description\":");
+                appendJson(transaction.getDescription());
+                line.append(",\"amount\":");
+                Money.appendTo(line, transaction.getAmount());
+                line.append(",\"categoryId\":").append(transaction.getCategoryId());
+                line.append(",\"category\":");
+                appendJson(categoryName);
+                line.append(",\"type\":\"").append(transaction.getType().name()).append("\"}");
+            }
+            line.append('\n');
+            
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * yyyy-MM-ddTHH:mm:ss без DateTimeFormatter
+         */
+        private void appendDate(LocalDateTime date) {
+            line.append(date.getYear()).append('-');
+            appendTwoDigits(date.getMonthValue());
+            line.append('-');
+            appendTwoDigits(date.getDayOfMonth());
+            line.append('T');
+            appendTwoDigits(date.getHour());
+            line.append(':');
+            appendTwoDigits(date.getMinute());
+            line.append(':');
+            appendTwoDigits(date.getSecond());
+        }
+        
+        private void appendTwoDigits(int value) {
+            if (value < 10) {
+                line.append('0');
+            }
+            line.append(value);
+        }
+        
+        private void appendCsv(String value) {
+            boolean needsQuotes = false;
+            for (int i = 0; i < value.length() && !needsQuotes; i++) {
+                char c = value.charAt(i);
+                needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            
+            if (!needsQuotes) {
+                line.append(value);
+                return;
+            }
+            
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+        
+        private void appendJson(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+    }
+}
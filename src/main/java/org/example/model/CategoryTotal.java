@@ -0,0 +1,40 @@
+package org.example.model;
+
+/**
+ * Сумма операций одной категории за период
+ * categoryId равен NO_CATEGORY для операций без категории
+ */
+public class CategoryTotal {
+    public static final long NO_CATEGORY = 0;
+
+    private final long categoryId;
+    private final TransactionType type;
+    private final long total;
+    private final long count;
+
+    public CategoryTotal(long categoryId, TransactionType type, long total, long count) {
+        this.categoryId = categoryId;
+        this.type = type;
+        this.total = total;
+        this.count = count;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * Сумма в копейках по модулю (расходы тоже положительные)
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
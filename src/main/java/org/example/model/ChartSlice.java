@@ -0,0 +1,31 @@
+package org.example.model;
+
+/**
+ * Сектор круговой диаграммы: сумма одной категории за период
+ */
+public class ChartSlice {
+    private final String name;
+    private final String color;
+    private final long total;
+
+    public ChartSlice(String name, String color, long total) {
+        this.name = name;
+        this.color = color;
+        this.total = total;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    /**
+     * Сумма в копейках по модулю
+     */
+    public long getTotal() {
+        return total;
+    }
+}
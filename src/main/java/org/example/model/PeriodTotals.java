@@ -0,0 +1,35 @@
+package org.example.model;
+
+/**
+ * Итоги доходов и расходов за период (в копейках)
+ */
+public class PeriodTotals {
+    private final long income;
+    private final long expense;
+    private final long count;
+
+    public PeriodTotals(long income, long expense, long count) {
+        this.income = income;
+        this.expense = expense;
+        this.count = count;
+    }
+
+    public long getIncome() {
+        return income;
+    }
+
+    /**
+     * Расходы по модулю
+     */
+    public long getExpense() {
+        return expense;
+    }
+
+    public long getBalance() {
+        return income - expense;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
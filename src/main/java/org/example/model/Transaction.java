@@ -5,14 +5,14 @@ import java.time.LocalDateTime;
 public class Transaction {
     private Long id;
     private String description;
-    private double amount;
+    private long amount;  // В копейках, расходы с минусом
     private LocalDateTime date;
     private Category category;
     private Long categoryId;  // Для связи с БД
     private TransactionType type;
     private Long userId;
 
-    public Transaction(String description, double amount, LocalDateTime date, Category category, TransactionType type) {
+    public Transaction(String description, long amount, LocalDateTime date, Category category, TransactionType type) {
         this.description = description;
         this.amount = amount;
         this.date = date;
@@ -21,7 +21,7 @@ public class Transaction {
         this.type = type;
     }
 
-    public Transaction(Long id, String description, double amount, LocalDateTime date, Long categoryId, TransactionType type) {
+    public Transaction(Long id, String description, long amount, LocalDateTime date, Long categoryId, TransactionType type) {
         this.id = id;
         this.description = description;
         this.amount = amount;
@@ -30,7 +30,7 @@ public class Transaction {
         this.type = type;
     }
 
-    public Transaction(Long id, String description, double amount, LocalDateTime date, Long categoryId, TransactionType type, Long userId) {
+    public Transaction(Long id, String description, long amount, LocalDateTime date, Long categoryId, TransactionType type, Long userId) {
         this.id = id;
         this.description = description;
         this.amount = amount;
@@ -56,11 +56,11 @@ public class Transaction {
         this.description = description;
     }
 
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
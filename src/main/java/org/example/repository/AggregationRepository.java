@@ -0,0 +1,39 @@
+package org.example.repository;
+
+import org.example.model.CategoryTotal;
+import org.example.model.PeriodTotals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Агрегаты по транзакциям пользователя, считаемые на стороне БД
+ * Все периоды полуоткрытые: [from, to). Периоды из целых месяцев считаются
+ * по помесячным итогам, остальные - по транзакциям
+ */
+public interface AggregationRepository {
+    
+    /**
+     * Суммы по категориям и типу операции
+     */
+    List<CategoryTotal> sumByCategory(Long userId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Общие суммы доходов и расходов
+     */
+    PeriodTotals totals(Long userId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Пересчитать помесячные итоги всех пользователей по транзакциям
+     *
+     * @return количество строк итогов
+     */
+    int rebuildMonthlyRollup();
+    
+    /**
+     * Сверить помесячные итоги с транзакциями
+     *
+     * @return количество расходящихся строк итогов или -1, если сверка не удалась
+     */
+    long countRollupMismatches();
+}
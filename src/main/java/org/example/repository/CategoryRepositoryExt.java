@@ -12,5 +12,20 @@ public interface CategoryRepositoryExt extends CategoryRepository {
      * Получить все категории пользователя
      */
     List<Category> findByUserId(Long userId);
+    
+    /**
+     * Сохранить несколько категорий одной транзакцией (JDBC batch)
+     * Сгенерированные ID проставляются в переданные объекты
+     */
+    void saveAll(List<Category> categories);
+    
+    /**
+     * Обновить несколько категорий одной транзакцией
+     */
+    void updateAll(List<Category> categories);
+    
+    /**
+     * Удалить категории по списку ID одной транзакцией
+     */
+    void deleteAllById(List<Long> ids);
 }
-
@@ -1,7 +1,9 @@
 package org.example.repository;
 
 import org.example.model.Transaction;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Расширенный интерфейс для работы с транзакциями по пользователям
@@ -12,5 +14,48 @@ public interface TransactionRepositoryExt extends TransactionRepository {
      * Получить все транзакции пользователя
      */
     List<Transaction> findByUserId(Long userId);
+    
+    /**
+     * Транзакции пользователя за период [from, to) от новых к старым
+     */
+    List<Transaction> findByUserIdAndDateRange(Long userId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Не больше limit последних транзакций пользователя за период [from, to)
+     */
+    List<Transaction> findByUserIdAndDateRange(Long userId, LocalDateTime from, LocalDateTime to, int limit);
+    
+    /**
+     * Страница транзакций пользователя (от новых к старым) по ключу последней строки предыдущей страницы
+     * Для первой страницы afterDate и afterId передаются как null
+     *
+     * @param afterDate дата последней транзакции предыдущей страницы
+     * @param afterId ID последней транзакции предыдущей страницы
+     * @param limit максимальный размер страницы
+     */
+    List<Transaction> findPage(Long userId, LocalDateTime afterDate, Long afterId, int limit);
+    
+    /**
+     * Передать все транзакции пользователя в consumer по мере чтения из БД (по возрастанию даты)
+     * Строки не накапливаются в памяти, поэтому подходит для экспорта и резервных копий
+     *
+     * @return количество прочитанных строк
+     */
+    long streamByUserId(Long userId, Consumer<Transaction> consumer);
+    
+    /**
+     * Сохранить несколько транзакций одной транзакцией (JDBC batch)
+     * Сгенерированные ID проставляются в переданные объекты
+     */
+    void saveAll(List<Transaction> transactions);
+    
+    /**
+     * Обновить несколько транзакций одной транзакцией
+     */
+    void updateAll(List<Transaction> transactions);
+    
+    /**
+     * Удалить транзакции по списку ID одной транзакцией
+     */
+    void deleteAllById(List<Long> ids);
 }
-
@@ -0,0 +1,33 @@
+package org.example.repository.async;
+
+import org.example.model.CategoryTotal;
+import org.example.model.PeriodTotals;
+import org.example.repository.AggregationRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронная обёртка над агрегатами
+ */
+public class AsyncAggregationRepository {
+    
+    private final AggregationRepository repository;
+    
+    public AsyncAggregationRepository(AggregationRepository repository) {
+        this.repository = repository;
+    }
+    
+    public CompletableFuture<List<CategoryTotal>> sumByCategory(Long userId, LocalDateTime from, LocalDateTime to) {
+        return AsyncExecution.supply(() -> repository.sumByCategory(userId, from, to));
+    }
+    
+    public CompletableFuture<PeriodTotals> totals(Long userId, LocalDateTime from, LocalDateTime to) {
+        return AsyncExecution.supply(() -> repository.totals(userId, from, to));
+    }
+    
+    public CompletableFuture<Integer> rebuildMonthlyRollup() {
+        return AsyncExecution.supply(repository::rebuildMonthlyRollup);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.repository.async;
+
+import org.example.model.Category;
+import org.example.repository.CategoryRepositoryExt;
+import org.example.repository.metrics.RepositoryErrors;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронная обёртка над репозиторием категорий
+ */
+public class AsyncCategoryRepository {
+    
+    private final CategoryRepositoryExt repository;
+    
+    public AsyncCategoryRepository(CategoryRepositoryExt repository) {
+        this.repository = repository;
+    }
+    
+    public CompletableFuture<Void> save(Category category) {
+        return write("save category", () -> repository.save(category));
+    }
+    
+    public CompletableFuture<Void> update(Category category) {
+        return write("update category", () -> repository.update(category));
+    }
+    
+    public CompletableFuture<Void> delete(Category category) {
+        return write("delete category", () -> repository.delete(category));
+    }
+    
+    public CompletableFuture<List<Category>> findByUserId(Long userId) {
+        return AsyncExecution.supply(() -> repository.findByUserId(userId));
+    }
+    
+    public CompletableFuture<Void> saveAll(List<Category> categories) {
+        return write("save categories", () -> repository.saveAll(categories));
+    }
+    
+    /**
+     * Репозиторий перехватывает SQLException сам, поэтому неудачная запись видна только по приросту
+     * RepositoryErrors в потоке вызова; future в этом случае завершается ошибкой
+     */
+    private static CompletableFuture<Void> write(String operation, Runnable work) {
+        return AsyncExecution.run(() -> {
+            int errorsBefore = RepositoryErrors.count();
+            work.run();
+            if (RepositoryErrors.count() != errorsBefore) {
+                throw new IllegalStateException("Failed to " + operation);
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.repository.async;
+
+import org.example.util.FxExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Запуск работы с БД на виртуальных потоках с доставкой результата в поток JavaFX
+ * Блокирующий JDBC-вызов занимает только виртуальный поток; записи при этом по-прежнему
+ * выполняются по очереди единственным потоком db-writer (см. DatabaseManager)
+ */
+public final class AsyncExecution {
+    
+    private static final ExecutorService DB_EXECUTOR = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("db-async-", 0).factory());
+    
+    private AsyncExecution() {
+    }
+    
+    /**
+     * Выполнить работу в фоне; future завершается (успешно или с ошибкой) в потоке JavaFX,
+     * поэтому обработчики thenAccept/whenComplete могут сразу обновлять UI
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        
+        CompletableFuture.supplyAsync(work, DB_EXECUTOR).whenComplete((value, error) ->
+            FxExecutor.INSTANCE.execute(() -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                } else {
+                    result.complete(value);
+                }
+            }));
+        
+        return result;
+    }
+    
+    public static CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Исходная ошибка без обёрток CompletionException/ExecutionException
+     */
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.repository.async;
+
+import org.example.model.Transaction;
+import org.example.repository.TransactionRepositoryExt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронная обёртка над репозиторием транзакций
+ * JDBC выполняется на виртуальных потоках, результаты приходят в поток JavaFX
+ */
+public class AsyncTransactionRepository {
+    
+    private final TransactionRepositoryExt repository;
+    
+    public AsyncTransactionRepository(TransactionRepositoryExt repository) {
+        this.repository = repository;
+    }
+    
+    public CompletableFuture<Void> save(Transaction transaction) {
+        return AsyncExecution.run(() -> repository.save(transaction));
+    }
+    
+    public CompletableFuture<Void> update(Transaction transaction) {
+        return AsyncExecution.run(() -> repository.update(transaction));
+    }
+    
+    public CompletableFuture<Void> delete(Transaction transaction) {
+        return AsyncExecution.run(() -> repository.delete(transaction));
+    }
+    
+    public CompletableFuture<Optional<Transaction>> findById(Long id) {
+        return AsyncExecution.supply(() -> repository.findById(id));
+    }
+    
+    public CompletableFuture<List<Transaction>> findByUserId(Long userId) {
+        return AsyncExecution.supply(() -> repository.findByUserId(userId));
+    }
+    
+    public CompletableFuture<List<Transaction>> findByUserIdAndDateRange(Long userId, LocalDateTime from, LocalDateTime to) {
+        return AsyncExecution.supply(() -> repository.findByUserIdAndDateRange(userId, from, to));
+    }
+    
+    public CompletableFuture<List<Transaction>> findByUserIdAndDateRange(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        return AsyncExecution.supply(() -> repository.findByUserIdAndDateRange(userId, from, to, limit));
+    }
+    
+    public CompletableFuture<List<Transaction>> findPage(Long userId, LocalDateTime afterDate, Long afterId, int limit) {
+        return AsyncExecution.supply(() -> repository.findPage(userId, afterDate, afterId, limit));
+    }
+    
+    public CompletableFuture<Void> saveAll(List<Transaction> transactions) {
+        return AsyncExecution.run(() -> repository.saveAll(transactions));
+    }
+    
+    public CompletableFuture<Void> updateAll(List<Transaction> transactions) {
+        return AsyncExecution.run(() -> repository.updateAll(transactions));
+    }
+    
+    public CompletableFuture<Void> deleteAllById(List<Long> ids) {
+        return AsyncExecution.run(() -> repository.deleteAllById(ids));
+    }
+}
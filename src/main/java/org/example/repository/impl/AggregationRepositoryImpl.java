@@ -0,0 +1,146 @@
+package org.example.repository.impl;
+
+import org.example.database.DatabaseManager;
+import org.example.database.MonthlyRollup;
+import org.example.model.CategoryTotal;
+import org.example.model.PeriodTotals;
+import org.example.model.TransactionType;
+import org.example.repository.AggregationRepository;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.util.EpochTime;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация агрегатов через GROUP BY в БД
+ * Строки транзакций не передаются в Java: из БД приходит по одной строке на группу.
+ * Для периодов из целых месяцев читается rollup_monthly, и стоимость запроса
+ * зависит от числа месяцев и категорий, а не от числа транзакций
+ */
+public class AggregationRepositoryImpl implements AggregationRepository {
+    
+    static final String SUM_BY_CATEGORY_SQL = "SELECT category_id, type, SUM(ABS(amount)) AS total, COUNT(*) AS cnt "
+        + "FROM transactions WHERE user_id = ? AND date >= ? AND date < ? GROUP BY category_id, type";
+    static final String TOTALS_SQL = "SELECT type, SUM(ABS(amount)) AS total, COUNT(*) AS cnt "
+        + "FROM transactions WHERE user_id = ? AND date >= ? AND date < ? GROUP BY type";
+    static final String ROLLUP_SUM_BY_CATEGORY_SQL = "SELECT category_id, type, SUM(total) AS total, SUM(count) AS cnt "
+        + "FROM rollup_monthly WHERE user_id = ? AND year_month >= ? AND year_month < ? GROUP BY category_id, type";
+    static final String ROLLUP_TOTALS_SQL = "SELECT type, SUM(total) AS total, SUM(count) AS cnt "
+        + "FROM rollup_monthly WHERE user_id = ? AND year_month >= ? AND year_month < ? GROUP BY type";
+    
+    private final DatabaseManager databaseManager;
+    
+    public AggregationRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+    
+    public AggregationRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+    
+    @Override
+    public List<CategoryTotal> sumByCategory(Long userId, LocalDateTime from, LocalDateTime to) {
+        List<CategoryTotal> totals = new ArrayList<>();
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 isWholeMonths(from, to) ? ROLLUP_SUM_BY_CATEGORY_SQL : SUM_BY_CATEGORY_SQL)) {
+            
+            bindPeriod(pstmt, userId, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // getLong возвращает 0 для NULL, что и есть NO_CATEGORY
+                    totals.add(new CategoryTotal(
+                        rs.getLong("category_id"),
+                        TransactionType.valueOf(rs.getString("type")),
+                        rs.getLong("total"),
+                        rs.getLong("cnt")
+                    ));
+                }
+            }
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error summing transactions by category", e);
+        }
+        
+        return totals;
+    }
+    
+    @Override
+    public PeriodTotals totals(Long userId, LocalDateTime from, LocalDateTime to) {
+        long income = 0;
+        long expense = 0;
+        long count = 0;
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 isWholeMonths(from, to) ? ROLLUP_TOTALS_SQL : TOTALS_SQL)) {
+            
+            bindPeriod(pstmt, userId, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (TransactionType.valueOf(rs.getString("type")) == TransactionType.INCOME) {
+                        income = rs.getLong("total");
+                    } else {
+                        expense = rs.getLong("total");
+                    }
+                    count += rs.getLong("cnt");
+                }
+            }
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error calculating period totals", e);
+        }
+        
+        return new PeriodTotals(income, expense, count);
+    }
+    
+    @Override
+    public int rebuildMonthlyRollup() {
+        try {
+            return databaseManager.write(conn -> MonthlyRollup.rebuild(conn, databaseManager.getDialect()));
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error rebuilding monthly rollup", e);
+        }
+        
+        return 0;
+    }
+    
+    @Override
+    public long countRollupMismatches() {
+        try (Connection conn = databaseManager.getReadConnection()) {
+            return MonthlyRollup.countMismatches(conn, databaseManager.getDialect());
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error verifying monthly rollup", e);
+        }
+        
+        return -1;
+    }
+    
+    private static boolean isWholeMonths(LocalDateTime from, LocalDateTime to) {
+        return MonthlyRollup.isMonthStart(from) && MonthlyRollup.isMonthStart(to);
+    }
+    
+    /**
+     * Привязка пользователя и периода: yyyyMM для итогов или секунды для транзакций
+     */
+    private void bindPeriod(PreparedStatement pstmt, Long userId, LocalDateTime from, LocalDateTime to) throws SQLException {
+        pstmt.setLong(1, userId);
+        if (isWholeMonths(from, to)) {
+            pstmt.setInt(2, MonthlyRollup.yearMonth(from));
+            pstmt.setInt(3, MonthlyRollup.yearMonth(to));
+        } else {
+            pstmt.setLong(2, EpochTime.toEpochSecond(from));
+            pstmt.setLong(3, EpochTime.toEpochSecond(to));
+        }
+    }
+}
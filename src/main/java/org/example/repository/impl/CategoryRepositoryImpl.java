@@ -1,9 +1,11 @@
 package org.example.repository.impl;
 
 import org.example.database.DatabaseManager;
+import org.example.database.dialect.SqlDialect;
 import org.example.model.Category;
 import org.example.model.TransactionType;
 import org.example.repository.CategoryRepositoryExt;
+import org.example.repository.metrics.RepositoryErrors;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -16,83 +18,79 @@ import java.util.Optional;
  */
 public class CategoryRepositoryImpl implements CategoryRepositoryExt {
     
+    static final String INSERT_SQL = "INSERT INTO categories (name, color, type, user_id) VALUES (?, ?, ?, ?)";
+    static final String UPDATE_SQL = "UPDATE categories SET name = ?, color = ?, type = ?, user_id = ? WHERE id = ?";
+    static final String DELETE_SQL = "DELETE FROM categories WHERE id = ?";
+    static final String FIND_BY_ID_SQL = "SELECT * FROM categories WHERE id = ?";
+    static final String FIND_ALL_SQL = "SELECT * FROM categories ORDER BY id";
+    static final String DELETE_ALL_SQL = "DELETE FROM categories";
+    static final String FIND_BY_USER_ID_SQL = "SELECT * FROM categories WHERE user_id = ? ORDER BY id";
+    
     private final DatabaseManager databaseManager;
     
     public CategoryRepositoryImpl() {
-        this.databaseManager = DatabaseManager.getInstance();
+        this(DatabaseManager.getInstance());
+    }
+    
+    public CategoryRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
     }
     
     @Override
     public void save(Category category) {
-        String sql = "INSERT INTO categories (name, color, type, user_id) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, category.getName());
-            pstmt.setString(2, category.getColor());
-            pstmt.setString(3, category.getType().name());
-            pstmt.setLong(4, category.getUserId());
-            
-            pstmt.executeUpdate();
-            
-            // Получаем последний вставленный ID (для SQLite)
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                if (rs.next()) {
-                    category.setId(rs.getLong(1));
+        try {
+            databaseManager.write(conn -> {
+                SqlDialect dialect = databaseManager.getDialect();
+                try (PreparedStatement pstmt = dialect.prepareInsert(conn, INSERT_SQL)) {
+                    bindCategory(pstmt, category);
+                    pstmt.executeUpdate();
+                    category.setId(dialect.generatedIds(pstmt, 1)[0]);
                 }
-            }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error saving category: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error saving category", e);
         }
     }
     
     @Override
     public void update(Category category) {
-        String sql = "UPDATE categories SET name = ?, color = ?, type = ?, user_id = ? WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, category.getName());
-            pstmt.setString(2, category.getColor());
-            pstmt.setString(3, category.getType().name());
-            pstmt.setLong(4, category.getUserId());
-            pstmt.setLong(5, category.getId());
-            
-            pstmt.executeUpdate();
+        try {
+            databaseManager.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                    bindCategory(pstmt, category);
+                    pstmt.setLong(5, category.getId());
+                    pstmt.executeUpdate();
+                }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error updating category: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error updating category", e);
         }
     }
     
     @Override
     public void delete(Category category) {
-        String sql = "DELETE FROM categories WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setLong(1, category.getId());
-            pstmt.executeUpdate();
+        try {
+            databaseManager.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+                    pstmt.setLong(1, category.getId());
+                    pstmt.executeUpdate();
+                }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error deleting category: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error deleting category", e);
         }
     }
     
     @Override
     public Optional<Category> findById(Long id) {
-        String sql = "SELECT * FROM categories WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID_SQL)) {
             
             pstmt.setLong(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -102,8 +100,7 @@ public class CategoryRepositoryImpl implements CategoryRepositoryExt {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding category by id: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding category by id", e);
         }
         
         return Optional.empty();
@@ -112,19 +109,16 @@ public class CategoryRepositoryImpl implements CategoryRepositoryExt {
     @Override
     public List<Category> findAll() {
         List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories ORDER BY id";
-        
-        try (Connection conn = databaseManager.getConnection();
+        try (Connection conn = databaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(FIND_ALL_SQL)) {
             
             while (rs.next()) {
                 categories.add(mapResultSetToCategory(rs));
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding all categories: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding all categories", e);
         }
         
         return categories;
@@ -132,26 +126,24 @@ public class CategoryRepositoryImpl implements CategoryRepositoryExt {
     
     @Override
     public void deleteAll() {
-        String sql = "DELETE FROM categories";
-        
-        try (Connection conn = databaseManager.getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            stmt.executeUpdate(sql);
+        try {
+            databaseManager.write(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(DELETE_ALL_SQL);
+                }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error deleting all categories: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error deleting all categories", e);
         }
     }
     
     @Override
     public List<Category> findByUserId(Long userId) {
         List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories WHERE user_id = ? ORDER BY id";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_USER_ID_SQL)) {
             
             pstmt.setLong(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -161,13 +153,77 @@ public class CategoryRepositoryImpl implements CategoryRepositoryExt {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding categories by user id: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding categories by user id", e);
         }
         
         return categories;
     }
     
+    @Override
+    public void saveAll(List<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.write(conn -> {
+                JdbcBatches.insert(conn, databaseManager.getDialect(), INSERT_SQL, categories,
+                    this::bindCategory, Category::setId);
+                return null;
+            });
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error saving categories batch", e);
+        }
+    }
+    
+    @Override
+    public void updateAll(List<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.write(conn -> {
+                JdbcBatches.execute(conn, UPDATE_SQL, categories, (pstmt, category) -> {
+                    bindCategory(pstmt, category);
+                    pstmt.setLong(5, category.getId());
+                });
+                return null;
+            });
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error updating categories batch", e);
+        }
+    }
+    
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.write(conn -> {
+                JdbcBatches.execute(conn, DELETE_SQL, ids, (pstmt, id) -> pstmt.setLong(1, id));
+                return null;
+            });
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error deleting categories batch", e);
+        }
+    }
+    
+    /**
+     * Привязка полей категории к параметрам 1-4 запросов INSERT_SQL и UPDATE_SQL
+     */
+    private void bindCategory(PreparedStatement pstmt, Category category) throws SQLException {
+        pstmt.setString(1, category.getName());
+        pstmt.setString(2, category.getColor());
+        pstmt.setString(3, category.getType().name());
+        pstmt.setLong(4, category.getUserId());
+    }
+    
     private Category mapResultSetToCategory(ResultSet rs) throws SQLException {
         return new Category(
             rs.getLong("id"),
@@ -0,0 +1,81 @@
+package org.example.repository.impl;
+
+import org.example.database.dialect.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Пакетная запись (JDBC batch) для репозиториев
+ * Вызывается внутри DatabaseManager.write, поэтому все порции идут одной транзакцией
+ */
+final class JdbcBatches {
+    
+    /**
+     * Количество строк в одном executeBatch
+     */
+    static final int BATCH_SIZE = 500;
+    
+    /**
+     * Привязка полей объекта к параметрам запроса
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+    
+    private JdbcBatches() {
+    }
+    
+    /**
+     * Выполнить запрос для каждого элемента порциями по BATCH_SIZE
+     */
+    static <T> void execute(Connection conn, String sql, List<T> items, Binder<T> binder) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+                List<T> chunk = items.subList(from, Math.min(from + BATCH_SIZE, items.size()));
+                for (T item : chunk) {
+                    binder.bind(pstmt, item);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+    
+    /**
+     * Вставить элементы порциями и проставить им сгенерированные ID
+     * Способ получения ID (last_insert_rowid или RETURNING id) определяет диалект.
+     * При ошибке транзакция откатывается, поэтому уже проставленные ID сбрасываются в null
+     */
+    static <T> void insert(Connection conn, SqlDialect dialect, String sql, List<T> items, Binder<T> binder,
+                           BiConsumer<T, Long> idSetter) throws SQLException {
+        int identified = 0;
+        try (PreparedStatement pstmt = dialect.prepareInsert(conn, sql)) {
+            for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+                List<T> chunk = items.subList(from, Math.min(from + BATCH_SIZE, items.size()));
+                for (T item : chunk) {
+                    binder.bind(pstmt, item);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                
+                long[] ids = dialect.generatedIds(pstmt, chunk.size());
+                for (int i = 0; i < ids.length; i++) {
+                    idSetter.accept(chunk.get(i), ids[i]);
+                }
+                identified = from + ids.length;
+            }
+            
+        } catch (SQLException | RuntimeException e) {
+            for (T item : items.subList(0, identified)) {
+                idSetter.accept(item, null);
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.example.repository.impl;
+
+import org.example.config.DatabaseType;
+import org.example.database.DatabaseManager;
+import org.example.database.dialect.SqliteDialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Проверка планов запросов репозиториев через EXPLAIN QUERY PLAN
+ * Запрос считается проблемным, если SQLite выбирает полный просмотр таблицы (SCAN)
+ * или сортирует результат во временном B-дереве вместо чтения индекса по порядку
+ */
+public class QueryPlanChecker {
+    
+    /**
+     * Запросы, для которых полный просмотр ожидаем (выгрузка всей таблицы)
+     */
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+        "TransactionRepositoryImpl.findAll",
+        "TransactionRepositoryImpl.deleteAll",
+        "CategoryRepositoryImpl.findAll",
+        "CategoryRepositoryImpl.deleteAll",
+        "UserRepositoryImpl.findAll"
+    );
+    
+    /**
+     * Агрегаты за период: диапазон по дате не позволяет читать индекс в порядке GROUP BY,
+     * но временное B-дерево строится по числу групп, а не по числу строк
+     */
+    private static final Set<String> GROUP_BY_SORT_ALLOWED = Set.of(
+        "AggregationRepositoryImpl.sumByCategory",
+        "AggregationRepositoryImpl.totals",
+        "AggregationRepositoryImpl.rollupSumByCategory",
+        "AggregationRepositoryImpl.rollupTotals"
+    );
+    
+    /**
+     * Все запросы репозиториев по имени метода
+     */
+    static Map<String, String> repositoryQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        
+        queries.put("TransactionRepositoryImpl.save", TransactionRepositoryImpl.INSERT_SQL);
+        queries.put("TransactionRepositoryImpl.update", TransactionRepositoryImpl.UPDATE_SQL);
+        queries.put("TransactionRepositoryImpl.delete", TransactionRepositoryImpl.DELETE_SQL);
+        queries.put("TransactionRepositoryImpl.findById", TransactionRepositoryImpl.FIND_BY_ID_SQL);
+        queries.put("TransactionRepositoryImpl.findAll", TransactionRepositoryImpl.FIND_ALL_SQL);
+        queries.put("TransactionRepositoryImpl.deleteAll", TransactionRepositoryImpl.DELETE_ALL_SQL);
+        queries.put("TransactionRepositoryImpl.findByUserId", TransactionRepositoryImpl.FIND_BY_USER_ID_SQL);
+        queries.put("TransactionRepositoryImpl.findByUserIdAndDateRange", TransactionRepositoryImpl.FIND_BY_USER_ID_AND_DATE_RANGE_SQL);
+        queries.put("TransactionRepositoryImpl.findRecentByUserIdAndDateRange", TransactionRepositoryImpl.FIND_RECENT_BY_USER_ID_AND_DATE_RANGE_SQL);
+        queries.put("TransactionRepositoryImpl.findFirstPage", TransactionRepositoryImpl.FIND_FIRST_PAGE_SQL);
+        queries.put("TransactionRepositoryImpl.findPage", TransactionRepositoryImpl.FIND_PAGE_SQL);
+        queries.put("TransactionRepositoryImpl.streamByUserId", TransactionRepositoryImpl.STREAM_BY_USER_ID_SQL);
+        
+        queries.put("CategoryRepositoryImpl.save", CategoryRepositoryImpl.INSERT_SQL);
+        queries.put("CategoryRepositoryImpl.update", CategoryRepositoryImpl.UPDATE_SQL);
+        queries.put("CategoryRepositoryImpl.delete", CategoryRepositoryImpl.DELETE_SQL);
+        queries.put("CategoryRepositoryImpl.findById", CategoryRepositoryImpl.FIND_BY_ID_SQL);
+        queries.put("CategoryRepositoryImpl.findAll", CategoryRepositoryImpl.FIND_ALL_SQL);
+        queries.put("CategoryRepositoryImpl.deleteAll", CategoryRepositoryImpl.DELETE_ALL_SQL);
+        queries.put("CategoryRepositoryImpl.findByUserId", CategoryRepositoryImpl.FIND_BY_USER_ID_SQL);
+        
+        queries.put("UserRepositoryImpl.save", UserRepositoryImpl.INSERT_SQL);
+        queries.put("UserRepositoryImpl.findById", UserRepositoryImpl.FIND_BY_ID_SQL);
+        queries.put("UserRepositoryImpl.findByUsername", UserRepositoryImpl.FIND_BY_USERNAME_SQL);
+        queries.put("UserRepositoryImpl.findAll", UserRepositoryImpl.FIND_ALL_SQL);
+        queries.put("UserRepositoryImpl.existsByUsername", UserRepositoryImpl.EXISTS_BY_USERNAME_SQL);
+        
+        queries.put("AggregationRepositoryImpl.sumByCategory", AggregationRepositoryImpl.SUM_BY_CATEGORY_SQL);
+        queries.put("AggregationRepositoryImpl.totals", AggregationRepositoryImpl.TOTALS_SQL);
+        queries.put("AggregationRepositoryImpl.rollupSumByCategory", AggregationRepositoryImpl.ROLLUP_SUM_BY_CATEGORY_SQL);
+        queries.put("AggregationRepositoryImpl.rollupTotals", AggregationRepositoryImpl.ROLLUP_TOTALS_SQL);
+        
+        return queries;
+    }
+    
+    /**
+     * Проверить планы всех запросов
+     *
+     * @return список нарушений (пустой, если все запросы используют индексы)
+     */
+    public static List<String> check(Connection conn) throws SQLException {
+        List<String> violations = new ArrayList<>();
+        
+        for (Map.Entry<String, String> query : repositoryQueries().entrySet()) {
+            if (FULL_SCAN_ALLOWED.contains(query.getKey())) {
+                continue;
+            }
+            
+            for (String detail : explain(conn, query.getValue())) {
+                if (detail.startsWith("USE TEMP B-TREE FOR GROUP BY") && GROUP_BY_SORT_ALLOWED.contains(query.getKey())) {
+                    continue;
+                }
+                if (detail.startsWith("SCAN ") || detail.startsWith("USE TEMP B-TREE")) {
+                    violations.add(query.getKey() + ": " + detail);
+                }
+            }
+        }
+        
+        return violations;
+    }
+    
+    /**
+     * Строки плана запроса (колонка detail из EXPLAIN QUERY PLAN)
+     * Параметры не привязываются: для построения плана достаточно NULL
+     */
+    static List<String> explain(Connection conn, String sql) throws SQLException {
+        return SqliteDialect.INSTANCE.explain(conn, sql);
+    }
+    
+    public static void main(String[] args) throws SQLException {
+        DatabaseManager databaseManager = DatabaseManager.getInstance();
+        List<String> violations;
+        
+        // Разбор плана рассчитан на вывод EXPLAIN QUERY PLAN
+        if (databaseManager.getDialect().getType() != DatabaseType.SQLITE) {
+            System.out.println("Query plan check is available for SQLite only");
+            databaseManager.shutdown();
+            return;
+        }
+        
+        try (Connection conn = databaseManager.getReadConnection()) {
+            violations = check(conn);
+        } finally {
+            databaseManager.shutdown();
+        }
+        
+        if (violations.isEmpty()) {
+            System.out.println("Query plans OK: " + repositoryQueries().size() + " queries checked");
+            return;
+        }
+        
+        System.err.println("Queries falling back to table scan:");
+        violations.forEach(v -> System.err.println("  " + v));
+        System.exit(1);
+    }
+}
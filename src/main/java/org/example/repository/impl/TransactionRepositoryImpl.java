@@ -1,16 +1,19 @@
 package org.example.repository.impl;
 
 import org.example.database.DatabaseManager;
+import org.example.database.dialect.SqlDialect;
 import org.example.model.Transaction;
 import org.example.model.TransactionType;
 import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.util.EpochTime;
 
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Реализация репозитория транзакций для работы с БД через JDBC
@@ -18,100 +21,91 @@ import java.util.Optional;
  */
 public class TransactionRepositoryImpl implements TransactionRepositoryExt {
     
+    static final String INSERT_SQL = "INSERT INTO transactions (description, amount, date, category_id, type, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String UPDATE_SQL = "UPDATE transactions SET description = ?, amount = ?, date = ?, category_id = ?, type = ?, user_id = ? WHERE id = ?";
+    static final String DELETE_SQL = "DELETE FROM transactions WHERE id = ?";
+    static final String FIND_BY_ID_SQL = "SELECT * FROM transactions WHERE id = ?";
+    static final String FIND_ALL_SQL = "SELECT * FROM transactions ORDER BY date DESC";
+    static final String DELETE_ALL_SQL = "DELETE FROM transactions";
+    static final String FIND_BY_USER_ID_SQL = "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC, id DESC";
+    static final String FIND_BY_USER_ID_AND_DATE_RANGE_SQL = "SELECT * FROM transactions WHERE user_id = ? AND date >= ? AND date < ? "
+        + "ORDER BY date DESC, id DESC";
+    static final String FIND_RECENT_BY_USER_ID_AND_DATE_RANGE_SQL = FIND_BY_USER_ID_AND_DATE_RANGE_SQL + " LIMIT ?";
+    static final String FIND_FIRST_PAGE_SQL = "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC, id DESC LIMIT ?";
+    static final String FIND_PAGE_SQL = "SELECT * FROM transactions WHERE user_id = ? AND date <= ? AND (date < ? OR id < ?) "
+        + "ORDER BY date DESC, id DESC LIMIT ?";
+    static final String STREAM_BY_USER_ID_SQL = "SELECT * FROM transactions WHERE user_id = ? ORDER BY date, id";
+    
+    /**
+     * Размер порции строк, которую драйвер читает за раз при потоковом чтении
+     */
+    private static final int STREAM_FETCH_SIZE = 1_000;
+    
     private final DatabaseManager databaseManager;
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
     public TransactionRepositoryImpl() {
-        this.databaseManager = DatabaseManager.getInstance();
+        this(DatabaseManager.getInstance());
+    }
+    
+    public TransactionRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
     }
     
     @Override
     public void save(Transaction transaction) {
-        String sql = "INSERT INTO transactions (description, amount, date, category_id, type, user_id) VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, transaction.getDescription());
-            pstmt.setDouble(2, transaction.getAmount());
-            pstmt.setString(3, transaction.getDate().format(DATE_FORMATTER));
-            
-            if (transaction.getCategoryId() != null) {
-                pstmt.setLong(4, transaction.getCategoryId());
-            } else {
-                pstmt.setNull(4, Types.INTEGER);
-            }
-            
-            pstmt.setString(5, transaction.getType().name());
-            pstmt.setLong(6, transaction.getUserId());
-            
-            pstmt.executeUpdate();
-            
-            // Получаем последний вставленный ID (для SQLite)
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                if (rs.next()) {
-                    transaction.setId(rs.getLong(1));
+        try {
+            databaseManager.write(conn -> {
+                SqlDialect dialect = databaseManager.getDialect();
+                try (PreparedStatement pstmt = dialect.prepareInsert(conn, INSERT_SQL)) {
+                    bindTransaction(pstmt, transaction);
+                    pstmt.executeUpdate();
+                    transaction.setId(dialect.generatedIds(pstmt, 1)[0]);
                 }
-            }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error saving transaction: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error saving transaction", e);
         }
     }
     
     @Override
     public void update(Transaction transaction) {
-        String sql = "UPDATE transactions SET description = ?, amount = ?, date = ?, category_id = ?, type = ?, user_id = ? WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, transaction.getDescription());
-            pstmt.setDouble(2, transaction.getAmount());
-            pstmt.setString(3, transaction.getDate().format(DATE_FORMATTER));
-            
-            if (transaction.getCategoryId() != null) {
-                pstmt.setLong(4, transaction.getCategoryId());
-            } else {
-                pstmt.setNull(4, Types.INTEGER);
-            }
-            
-            pstmt.setString(5, transaction.getType().name());
-            pstmt.setLong(6, transaction.getUserId());
-            pstmt.setLong(7, transaction.getId());
-            
-            pstmt.executeUpdate();
+        try {
+            databaseManager.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                    bindTransaction(pstmt, transaction);
+                    pstmt.setLong(7, transaction.getId());
+                    pstmt.executeUpdate();
+                }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error updating transaction: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error updating transaction", e);
         }
     }
     
     @Override
     public void delete(Transaction transaction) {
-        String sql = "DELETE FROM transactions WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setLong(1, transaction.getId());
-            pstmt.executeUpdate();
+        try {
+            databaseManager.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+                    pstmt.setLong(1, transaction.getId());
+                    pstmt.executeUpdate();
+                }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error deleting transaction: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error deleting transaction", e);
         }
     }
     
     @Override
     public Optional<Transaction> findById(Long id) {
-        String sql = "SELECT * FROM transactions WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID_SQL)) {
             
             pstmt.setLong(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -121,8 +115,7 @@ public class TransactionRepositoryImpl implements TransactionRepositoryExt {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding transaction by id: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding transaction by id", e);
         }
         
         return Optional.empty();
@@ -131,19 +124,16 @@ public class TransactionRepositoryImpl implements TransactionRepositoryExt {
     @Override
     public List<Transaction> findAll() {
         List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions ORDER BY date DESC";
-        
-        try (Connection conn = databaseManager.getConnection();
+        try (Connection conn = databaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(FIND_ALL_SQL)) {
             
             while (rs.next()) {
                 transactions.add(mapResultSetToTransaction(rs));
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding all transactions: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding all transactions", e);
         }
         
         return transactions;
@@ -151,26 +141,24 @@ public class TransactionRepositoryImpl implements TransactionRepositoryExt {
     
     @Override
     public void deleteAll() {
-        String sql = "DELETE FROM transactions";
-        
-        try (Connection conn = databaseManager.getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            stmt.executeUpdate(sql);
+        try {
+            databaseManager.write(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(DELETE_ALL_SQL);
+                }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error deleting all transactions: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error deleting all transactions", e);
         }
     }
     
     @Override
     public List<Transaction> findByUserId(Long userId) {
         List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_USER_ID_SQL)) {
             
             pstmt.setLong(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -180,17 +168,185 @@ public class TransactionRepositoryImpl implements TransactionRepositoryExt {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding transactions by user id: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding transactions by user id", e);
         }
         
         return transactions;
     }
     
-    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
-        String dateStr = rs.getString("date");
-        LocalDateTime date = LocalDateTime.parse(dateStr, DATE_FORMATTER);
+    @Override
+    public List<Transaction> findByUserIdAndDateRange(Long userId, LocalDateTime from, LocalDateTime to) {
+        return findInDateRange(userId, from, to, 0);
+    }
+    
+    @Override
+    public List<Transaction> findByUserIdAndDateRange(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        return findInDateRange(userId, from, to, limit);
+    }
+    
+    /**
+     * Выборка за период; limit = 0 - без ограничения
+     */
+    private List<Transaction> findInDateRange(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Transaction> transactions = new ArrayList<>();
+        String sql = limit > 0 ? FIND_RECENT_BY_USER_ID_AND_DATE_RANGE_SQL : FIND_BY_USER_ID_AND_DATE_RANGE_SQL;
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, userId);
+            pstmt.setLong(2, EpochTime.toEpochSecond(from));
+            pstmt.setLong(3, EpochTime.toEpochSecond(to));
+            if (limit > 0) {
+                pstmt.setInt(4, limit);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error finding transactions by date range", e);
+        }
+        
+        return transactions;
+    }
+    
+    @Override
+    public List<Transaction> findPage(Long userId, LocalDateTime afterDate, Long afterId, int limit) {
+        List<Transaction> transactions = new ArrayList<>(limit);
+        boolean firstPage = afterDate == null || afterId == null;
         
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(firstPage ? FIND_FIRST_PAGE_SQL : FIND_PAGE_SQL)) {
+            
+            pstmt.setLong(1, userId);
+            if (firstPage) {
+                pstmt.setInt(2, limit);
+            } else {
+                // Ключ (date, id): строки строго после последней строки предыдущей страницы
+                long date = EpochTime.toEpochSecond(afterDate);
+                pstmt.setLong(2, date);
+                pstmt.setLong(3, date);
+                pstmt.setLong(4, afterId);
+                pstmt.setInt(5, limit);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error finding transactions page", e);
+        }
+        
+        return transactions;
+    }
+    
+    @Override
+    public long streamByUserId(Long userId, Consumer<Transaction> consumer) {
+        long count = 0;
+        
+        try (Connection conn = databaseManager.getReadConnection()) {
+            databaseManager.getDialect().beginStreaming(conn);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(STREAM_BY_USER_ID_SQL)) {
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+                pstmt.setLong(1, userId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapResultSetToTransaction(rs));
+                        count++;
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error streaming transactions by user id", e);
+        }
+        
+        return count;
+    }
+    
+    @Override
+    public void saveAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.write(conn -> {
+                JdbcBatches.insert(conn, databaseManager.getDialect(), INSERT_SQL, transactions,
+                    this::bindTransaction, Transaction::setId);
+                return null;
+            });
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error saving transactions batch", e);
+        }
+    }
+    
+    @Override
+    public void updateAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.write(conn -> {
+                JdbcBatches.execute(conn, UPDATE_SQL, transactions, (pstmt, transaction) -> {
+                    bindTransaction(pstmt, transaction);
+                    pstmt.setLong(7, transaction.getId());
+                });
+                return null;
+            });
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error updating transactions batch", e);
+        }
+    }
+    
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.write(conn -> {
+                JdbcBatches.execute(conn, DELETE_SQL, ids, (pstmt, id) -> pstmt.setLong(1, id));
+                return null;
+            });
+            
+        } catch (SQLException e) {
+            RepositoryErrors.report("Error deleting transactions batch", e);
+        }
+    }
+    
+    /**
+     * Привязка полей транзакции к параметрам 1-6 запросов INSERT_SQL и UPDATE_SQL
+     */
+    private void bindTransaction(PreparedStatement pstmt, Transaction transaction) throws SQLException {
+        pstmt.setString(1, transaction.getDescription());
+        pstmt.setLong(2, transaction.getAmount());
+        pstmt.setLong(3, EpochTime.toEpochSecond(transaction.getDate()));
+        
+        if (transaction.getCategoryId() != null) {
+            pstmt.setLong(4, transaction.getCategoryId());
+        } else {
+            pstmt.setNull(4, Types.INTEGER);
+        }
+        
+        pstmt.setString(5, transaction.getType().name());
+        pstmt.setLong(6, transaction.getUserId());
+    }
+    
+    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Long categoryId = rs.getLong("category_id");
         if (rs.wasNull()) {
             categoryId = null;
@@ -199,8 +355,8 @@ public class TransactionRepositoryImpl implements TransactionRepositoryExt {
         return new Transaction(
             rs.getLong("id"),
             rs.getString("description"),
-            rs.getDouble("amount"),
-            date,
+            rs.getLong("amount"),
+            EpochTime.fromEpochSecond(rs.getLong("date")),
             categoryId,
             TransactionType.valueOf(rs.getString("type")),
             rs.getLong("user_id")
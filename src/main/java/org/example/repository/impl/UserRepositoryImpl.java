@@ -1,8 +1,10 @@
 package org.example.repository.impl;
 
 import org.example.database.DatabaseManager;
+import org.example.database.dialect.SqlDialect;
 import org.example.model.User;
 import org.example.repository.UserRepository;
+import org.example.repository.metrics.RepositoryErrors;
 
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -16,47 +18,49 @@ import java.util.Optional;
  */
 public class UserRepositoryImpl implements UserRepository {
     
+    static final String INSERT_SQL = "INSERT INTO users (username, password_hash, email, created_at) VALUES (?, ?, ?, ?)";
+    static final String FIND_BY_ID_SQL = "SELECT * FROM users WHERE id = ?";
+    static final String FIND_BY_USERNAME_SQL = "SELECT * FROM users WHERE username = ?";
+    static final String FIND_ALL_SQL = "SELECT * FROM users ORDER BY created_at DESC";
+    static final String EXISTS_BY_USERNAME_SQL = "SELECT COUNT(*) FROM users WHERE username = ?";
+    
     private final DatabaseManager databaseManager;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
     public UserRepositoryImpl() {
-        this.databaseManager = DatabaseManager.getInstance();
+        this(DatabaseManager.getInstance());
+    }
+    
+    public UserRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
     }
     
     @Override
     public void save(User user) {
-        String sql = "INSERT INTO users (username, password_hash, email, created_at) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getPasswordHash());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setString(4, user.getCreatedAt().format(DATE_FORMATTER));
-            
-            pstmt.executeUpdate();
-            
-            // Получаем последний вставленный ID (для SQLite)
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                if (rs.next()) {
-                    user.setId(rs.getLong(1));
+        try {
+            databaseManager.write(conn -> {
+                SqlDialect dialect = databaseManager.getDialect();
+                try (PreparedStatement pstmt = dialect.prepareInsert(conn, INSERT_SQL)) {
+                    pstmt.setString(1, user.getUsername());
+                    pstmt.setString(2, user.getPasswordHash());
+                    pstmt.setString(3, user.getEmail());
+                    pstmt.setString(4, user.getCreatedAt().format(DATE_FORMATTER));
+                    
+                    pstmt.executeUpdate();
+                    user.setId(dialect.generatedIds(pstmt, 1)[0]);
                 }
-            }
+                return null;
+            });
             
         } catch (SQLException e) {
-            System.err.println("Error saving user: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error saving user", e);
         }
     }
     
     @Override
     public Optional<User> findById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID_SQL)) {
             
             pstmt.setLong(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -66,8 +70,7 @@ public class UserRepositoryImpl implements UserRepository {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding user by id: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding user by id", e);
         }
         
         return Optional.empty();
@@ -75,10 +78,8 @@ public class UserRepositoryImpl implements UserRepository {
     
     @Override
     public Optional<User> findByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_USERNAME_SQL)) {
             
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
@@ -88,8 +89,7 @@ public class UserRepositoryImpl implements UserRepository {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding user by username: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding user by username", e);
         }
         
         return Optional.empty();
@@ -98,19 +98,16 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public List<User> findAll() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY created_at DESC";
-        
-        try (Connection conn = databaseManager.getConnection();
+        try (Connection conn = databaseManager.getReadConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(FIND_ALL_SQL)) {
             
             while (rs.next()) {
                 users.add(mapResultSetToUser(rs));
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding all users: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error finding all users", e);
         }
         
         return users;
@@ -118,10 +115,8 @@ public class UserRepositoryImpl implements UserRepository {
     
     @Override
     public boolean existsByUsername(String username) {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(EXISTS_BY_USERNAME_SQL)) {
             
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
@@ -131,8 +126,7 @@ public class UserRepositoryImpl implements UserRepository {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error checking user existence: " + e.getMessage());
-            e.printStackTrace();
+            RepositoryErrors.report("Error checking user existence", e);
         }
         
         return false;
@@ -0,0 +1,59 @@
+package org.example.repository.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одного метода репозитория: задержки, строки, ошибки
+ */
+public class MethodMetrics {
+    
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+    
+    void record(long nanos, long rowCount, int errorCount) {
+        latency.record(nanos);
+        rows.add(rowCount);
+        if (errorCount > 0) {
+            errors.add(errorCount);
+        }
+    }
+    
+    /**
+     * Репозиторий.метод, например TransactionRepositoryExt.findByUserId
+     */
+    public String getName() {
+        return name;
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    public long getCalls() {
+        return latency.getCount();
+    }
+    
+    /**
+     * Прочитанные или записанные строки за все вызовы
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%-55s calls=%d p50=%.2f ms p99=%.2f ms max=%.2f ms rows=%d errors=%d",
+            name, getCalls(), latency.getPercentile(50) / 1e6, latency.getPercentile(99) / 1e6,
+            latency.getMax() / 1e6, getRows(), getErrors());
+    }
+}
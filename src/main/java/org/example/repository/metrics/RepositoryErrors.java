@@ -0,0 +1,32 @@
+package org.example.repository.metrics;
+
+/**
+ * Учёт ошибок репозиториев
+ * Реализации перехватывают SQLException сами и возвращают пустой результат, поэтому
+ * ошибка не доходит до декоратора исключением. Вместо этого она считается в счётчике
+ * текущего потока, а декоратор относит прирост счётчика к вызванному методу
+ */
+public final class RepositoryErrors {
+    
+    private static final ThreadLocal<int[]> ERROR_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    
+    private RepositoryErrors() {
+    }
+    
+    /**
+     * Вывести ошибку в лог и учесть её в метриках
+     */
+    public static void report(String message, Exception e) {
+        ERROR_COUNT.get()[0]++;
+        System.err.println(message + ": " + e.getMessage());
+        e.printStackTrace();
+    }
+    
+    /**
+     * Количество ошибок в текущем потоке с начала работы
+     * (прирост за вызов показывает, что репозиторий вернул пустой результат из-за ошибки)
+     */
+    public static int count() {
+        return ERROR_COUNT.get()[0];
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.repository.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр метрик методов репозиториев внутри процесса
+ */
+public class RepositoryMetrics {
+    
+    private static RepositoryMetrics instance;
+    
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    
+    private RepositoryMetrics() {
+    }
+    
+    public static synchronized RepositoryMetrics getInstance() {
+        if (instance == null) {
+            instance = new RepositoryMetrics();
+        }
+        return instance;
+    }
+    
+    MethodMetrics forMethod(String name) {
+        return methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+    
+    /**
+     * Метрики методов, начиная с самых долгих по p99
+     */
+    public List<MethodMetrics> getAll() {
+        List<MethodMetrics> all = new ArrayList<>(methods.values());
+        all.sort(Comparator.comparingLong((MethodMetrics m) -> m.getLatency().getPercentile(99)).reversed());
+        return all;
+    }
+    
+    /**
+     * Текстовый снимок метрик, по строке на метод
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        for (MethodMetrics metrics : getAll()) {
+            text.append(metrics).append('\n');
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Выгрузить метрики в CSV (задержки в микросекундах)
+     */
+    public void exportCsv(Path file) throws IOException {
+        StringBuilder csv = new StringBuilder("method,calls,p50_us,p99_us,max_us,mean_us,rows,errors\n");
+        for (MethodMetrics metrics : getAll()) {
+            LatencyHistogram latency = metrics.getLatency();
+            csv.append(metrics.getName()).append(',')
+                .append(metrics.getCalls()).append(',')
+                .append(latency.getPercentile(50) / 1_000).append(',')
+                .append(latency.getPercentile(99) / 1_000).append(',')
+                .append(latency.getMax() / 1_000).append(',')
+                .append(Math.round(latency.getMean() / 1_000)).append(',')
+                .append(metrics.getRows()).append(',')
+                .append(metrics.getErrors()).append('\n');
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+    }
+    
+    public void reset() {
+        methods.clear();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.repository.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Декоратор репозиториев, измеряющий каждый вызов
+ * Оборачивает реализацию в динамический прокси интерфейса: для каждого метода
+ * пишутся задержка, число строк и число ошибок в RepositoryMetrics
+ */
+public final class TimedRepositories {
+    
+    private TimedRepositories() {
+    }
+    
+    /**
+     * Обернуть репозиторий
+     *
+     * @param type интерфейс репозитория, по его имени называются метрики
+     */
+    public static <T> T wrap(Class<T> type, T repository) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            new TimingHandler(type.getSimpleName(), repository, RepositoryMetrics.getInstance()));
+        return type.cast(proxy);
+    }
+    
+    private static final class TimingHandler implements InvocationHandler {
+        private final String prefix;
+        private final Object target;
+        private final RepositoryMetrics registry;
+        
+        // Поиск метрик по Method без сборки строки имени на каждом вызове
+        private final Map<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+        
+        TimingHandler(String prefix, Object target, RepositoryMetrics registry) {
+            this.prefix = prefix;
+            this.target = target;
+            this.registry = registry;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+            
+            MethodMetrics methodMetrics = metrics.computeIfAbsent(method,
+                m -> registry.forMethod(prefix + "." + m.getName()));
+            int errorsBefore = RepositoryErrors.count();
+            long start = System.nanoTime();
+            Object result = null;
+            int thrown = 0;
+            
+            try {
+                result = invokeTarget(method, args);
+                return result;
+            } catch (Throwable e) {
+                thrown = 1;
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                methodMetrics.record(elapsed, rowCount(method, args, result),
+                    RepositoryErrors.count() - errorsBefore + thrown);
+            }
+        }
+        
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        
+        /**
+         * Число строк вызова: размер результата для выборок, размер списка-аргумента
+         * для пакетных записей, значение результата для потоковых методов
+         */
+        private static long rowCount(Method method, Object[] args, Object result) {
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (result instanceof Long rows && method.getName().startsWith("stream")) {
+                return rows;
+            }
+            if (args != null) {
+                for (Object arg : args) {
+                    if (arg instanceof Collection<?> collection) {
+                        return collection.size();
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+}
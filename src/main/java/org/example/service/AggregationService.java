@@ -0,0 +1,130 @@
+package org.example.service;
+
+import org.example.model.Category;
+import org.example.model.CategoryTotal;
+import org.example.model.ChartSlice;
+import org.example.model.PeriodTotals;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Агрегаты главного экрана без зависимостей от JavaFX:
+ * границы выбранного периода, суммы по категориям и секторы диаграмм.
+ * В приложении суммы считает БД (AggregationRepository); расчёт в памяти по списку транзакций
+ * даёт тот же результат: по нему команда check консольного режима сверяет агрегаты БД
+ */
+public class AggregationService {
+    
+    private static AggregationService instance;
+    
+    private AggregationService() {
+    }
+    
+    public static synchronized AggregationService getInstance() {
+        if (instance == null) {
+            instance = new AggregationService();
+        }
+        return instance;
+    }
+    
+    /**
+     * Начало периода: год, месяц года или день месяца
+     * Если год не выбран - текущий год, день учитывается только вместе с месяцем
+     */
+    public LocalDateTime periodStart(Integer year, Integer month, Integer day) {
+        int y = year != null ? year : LocalDate.now().getYear();
+        int m = month != null ? month : 1;
+        int d = month != null && day != null ? day : 1;
+        return LocalDate.of(y, m, d).atStartOfDay();
+    }
+    
+    /**
+     * Конец периода (не включительно) для начала, полученного из periodStart
+     */
+    public LocalDateTime periodEnd(LocalDateTime start, Integer month, Integer day) {
+        if (month != null && day != null) {
+            return start.plusDays(1);
+        }
+        return month != null ? start.plusMonths(1) : start.plusYears(1);
+    }
+    
+    /**
+     * Суммы по категориям за период [from, to) - аналог AggregationRepository.sumByCategory
+     * Суммы по модулю, операции без категории собираются под CategoryTotal.NO_CATEGORY
+     */
+    public List<CategoryTotal> sumByCategory(List<Transaction> transactions, LocalDateTime from, LocalDateTime to) {
+        // По типу: ID категории -> {сумма, количество}
+        Map<Long, long[]> income = new HashMap<>();
+        Map<Long, long[]> expense = new HashMap<>();
+        
+        for (Transaction transaction : transactions) {
+            LocalDateTime date = transaction.getDate();
+            if (date.isBefore(from) || !date.isBefore(to)) {
+                continue;
+            }
+            
+            Long categoryId = transaction.getCategoryId() != null ? transaction.getCategoryId() : CategoryTotal.NO_CATEGORY;
+            Map<Long, long[]> sums = transaction.getType() == TransactionType.INCOME ? income : expense;
+            long[] sum = sums.computeIfAbsent(categoryId, id -> new long[2]);
+            sum[0] += Math.abs(transaction.getAmount());
+            sum[1]++;
+        }
+        
+        List<CategoryTotal> result = new ArrayList<>(income.size() + expense.size());
+        income.forEach((id, sum) -> result.add(new CategoryTotal(id, TransactionType.INCOME, sum[0], sum[1])));
+        expense.forEach((id, sum) -> result.add(new CategoryTotal(id, TransactionType.EXPENSE, sum[0], sum[1])));
+        return result;
+    }
+    
+    /**
+     * Итоги доходов и расходов по суммам категорий
+     */
+    public PeriodTotals totals(List<CategoryTotal> categoryTotals) {
+        long income = 0;
+        long expense = 0;
+        long count = 0;
+        
+        for (CategoryTotal total : categoryTotals) {
+            if (total.getType() == TransactionType.INCOME) {
+                income += total.getTotal();
+            } else {
+                expense += total.getTotal();
+            }
+            count += total.getCount();
+        }
+        return new PeriodTotals(income, expense, count);
+    }
+    
+    /**
+     * Секторы диаграммы одного типа операций
+     * Суммы приходят по ID категории, поэтому одноимённые категории не сливаются в один сектор;
+     * операции без категории (и удалённых категорий) на диаграмму не попадают
+     *
+     * @param categoryLookup категория по ID или null, если её нет
+     */
+    public List<ChartSlice> chartSlices(List<CategoryTotal> categoryTotals, TransactionType type,
+                                        LongFunction<Category> categoryLookup) {
+        List<ChartSlice> slices = new ArrayList<>();
+        
+        for (CategoryTotal total : categoryTotals) {
+            if (total.getType() != type) {
+                continue;
+            }
+            
+            Category category = categoryLookup.apply(total.getCategoryId());
+            if (category == null) {
+                continue;
+            }
+            slices.add(new ChartSlice(category.getName(), category.getColor(), total.getTotal()));
+        }
+        return slices;
+    }
+}
@@ -4,6 +4,7 @@ import at.favre.lib.crypto.bcrypt.BCrypt;
 import org.example.model.User;
 import org.example.repository.UserRepository;
 import org.example.repository.impl.UserRepositoryImpl;
+import org.example.repository.metrics.TimedRepositories;
 
 import java.util.Optional;
 
@@ -18,12 +19,12 @@ public class AuthService {
     private final BCrypt.Verifyer verifyer;
     
     private AuthService() {
-        this.userRepository = new UserRepositoryImpl();
+        this.userRepository = TimedRepositories.wrap(UserRepository.class, new UserRepositoryImpl());
         this.hasher = BCrypt.withDefaults();
         this.verifyer = BCrypt.verifyer();
     }
     
-    public static AuthService getInstance() {
+    public static synchronized AuthService getInstance() {
         if (instance == null) {
             instance = new AuthService();
         }
@@ -2,46 +2,90 @@ package org.example.service;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import org.example.config.DatabaseConfig;
+import org.example.io.CategoryLookup;
+import org.example.io.CsvTransactionImporter;
+import org.example.io.ExportFormat;
+import org.example.io.ExportResult;
+import org.example.io.ImportProgressListener;
+import org.example.io.ImportResult;
+import org.example.io.TransactionExporter;
 import org.example.model.Category;
+import org.example.model.CategoryTotal;
+import org.example.model.PeriodTotals;
 import org.example.model.Transaction;
 import org.example.model.TransactionType;
+import org.example.repository.AggregationRepository;
 import org.example.repository.CategoryRepositoryExt;
 import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.async.AsyncAggregationRepository;
+import org.example.repository.async.AsyncCategoryRepository;
+import org.example.repository.async.AsyncExecution;
+import org.example.repository.async.AsyncTransactionRepository;
+import org.example.repository.impl.AggregationRepositoryImpl;
 import org.example.repository.impl.CategoryRepositoryImpl;
 import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.repository.metrics.TimedRepositories;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Сервис для работы с данными приложения
- * Использует репозитории для работы с БД
+ * Использует репозитории для работы с БД. Обращения к БД выполняются асинхронно
+ * (см. AsyncExecution): методы возвращают CompletableFuture, который завершается
+ * в потоке JavaFX, поэтому UI не блокируется и списки обновляются в правильном потоке
  */
-public class DataService {
+public class DataService implements CategoryLookup {
+    private static final int RECENT_TRANSACTIONS_LIMIT = 100;
+    
     private static DataService instance;
     private ObservableList<Transaction> transactions;
     private ObservableList<Category> categories;
     
     private final TransactionRepositoryExt transactionRepository;
     private final CategoryRepositoryExt categoryRepository;
+    private final AsyncTransactionRepository asyncTransactionRepository;
+    private final AsyncCategoryRepository asyncCategoryRepository;
+    private final AsyncAggregationRepository asyncAggregationRepository;
+    private final WriteBehindQueue writeQueue;
     private final SessionManager sessionManager;
     
-    // Кэш категорий для быстрого доступа по ID
+    // Кэш категорий для быстрого доступа по ID (читается и из фоновых потоков импорта)
     private Map<Long, Category> categoryCache;
+    
+    // Завершается, когда кэш категорий заполнен текущей загрузкой (см. readBarrier)
+    private volatile CompletableFuture<Void> categoriesLoaded = CompletableFuture.completedFuture(null);
+    
+    // Списки перезагружаются после неудачной отложенной записи (только в потоке JavaFX)
+    private boolean revertInProgress;
 
     private DataService() {
-        transactionRepository = new TransactionRepositoryImpl();
-        categoryRepository = new CategoryRepositoryImpl();
+        // Все обращения к репозиториям проходят через декоратор метрик (RepositoryMetrics)
+        transactionRepository = TimedRepositories.wrap(TransactionRepositoryExt.class, new TransactionRepositoryImpl());
+        categoryRepository = TimedRepositories.wrap(CategoryRepositoryExt.class, new CategoryRepositoryImpl());
+        asyncTransactionRepository = new AsyncTransactionRepository(transactionRepository);
+        asyncCategoryRepository = new AsyncCategoryRepository(categoryRepository);
+        asyncAggregationRepository = new AsyncAggregationRepository(
+            TimedRepositories.wrap(AggregationRepository.class, new AggregationRepositoryImpl()));
+        writeQueue = new WriteBehindQueue(transactionRepository,
+            DatabaseConfig.getWriteBehindFlushIntervalMillis(), DatabaseConfig.getWriteBehindMaxBatch());
         sessionManager = SessionManager.getInstance();
-        categoryCache = new HashMap<>();
+        categoryCache = new ConcurrentHashMap<>();
         
         transactions = FXCollections.observableArrayList();
         categories = FXCollections.observableArrayList();
     }
 
-    public static DataService getInstance() {
+    public static synchronized DataService getInstance() {
         if (instance == null) {
             instance = new DataService();
         }
@@ -51,40 +95,146 @@ public class DataService {
     /**
      * Загрузка данных из БД для текущего пользователя
      */
-    public void loadData() {
+    public CompletableFuture<Void> loadData() {
         Long userId = sessionManager.getCurrentUserId();
         
         if (userId == null) {
             System.out.println("No user logged in");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
-        // Загружаем категории пользователя
-        List<Category> loadedCategories = categoryRepository.findByUserId(userId);
-        categories.setAll(loadedCategories);
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        categoriesLoaded = loaded;
         
-        // Обновляем кэш
-        categoryCache.clear();
-        for (Category category : loadedCategories) {
-            categoryCache.put(category.getId(), category);
+        // Загружаем категории пользователя; если их нет, создаём категории по умолчанию (без транзакций)
+        return flushPendingWrites()
+            .thenCompose(v -> asyncCategoryRepository.findByUserId(userId))
+            .thenCompose(loadedCategories -> loadedCategories.isEmpty()
+                ? initializeDefaultCategories(userId)
+                : CompletableFuture.completedFuture(loadedCategories))
+            .thenCompose(loadedCategories -> {
+                categories.setAll(loadedCategories);
+                
+                // Обновляем кэш
+                categoryCache.clear();
+                for (Category category : loadedCategories) {
+                    cacheCategory(category);
+                }
+                loaded.complete(null);
+                
+                // Загружаем только последние транзакции; период и история запрашиваются из БД по требованию
+                return asyncTransactionRepository.findPage(userId, null, null, RECENT_TRANSACTIONS_LIMIT);
+            })
+            .thenAccept(loadedTransactions -> {
+                // Связываем транзакции с категориями
+                linkCategories(loadedTransactions);
+                transactions.setAll(loadedTransactions);
+            })
+            // При ошибке загрузки запросы не должны ждать категорий вечно
+            .whenComplete((v, error) -> loaded.complete(null));
+    }
+
+    /**
+     * Транзакции текущего пользователя за период [from, to) от новых к старым
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsForPeriod(LocalDateTime from, LocalDateTime to) {
+        Long userId = sessionManager.getCurrentUserId();
+        if (userId == null) {
+            return CompletableFuture.completedFuture(List.of());
         }
         
-        // Если категорий нет, создаём только категории по умолчанию (без транзакций)
-        if (categories.isEmpty()) {
-            initializeDefaultCategories();
-            // После инициализации перезагружаем категории в кэш
-            loadedCategories = categoryRepository.findByUserId(userId);
-            categories.setAll(loadedCategories);
-            categoryCache.clear();
-            for (Category category : loadedCategories) {
-                categoryCache.put(category.getId(), category);
-            }
+        return readBarrier()
+            .thenCompose(v -> asyncTransactionRepository.findByUserIdAndDateRange(userId, from, to))
+            .thenApply(this::linkCategories);
+    }
+    
+    /**
+     * Не больше limit последних транзакций текущего пользователя за период [from, to)
+     */
+    public CompletableFuture<List<Transaction>> getRecentTransactionsForPeriod(LocalDateTime from, LocalDateTime to, int limit) {
+        Long userId = sessionManager.getCurrentUserId();
+        if (userId == null) {
+            return CompletableFuture.completedFuture(List.of());
         }
         
-        // Загружаем транзакции пользователя
-        List<Transaction> loadedTransactions = transactionRepository.findByUserId(userId);
+        return readBarrier()
+            .thenCompose(v -> asyncTransactionRepository.findByUserIdAndDateRange(userId, from, to, limit))
+            .thenApply(this::linkCategories);
+    }
+    
+    /**
+     * Суммы по категориям текущего пользователя за период [from, to)
+     */
+    public CompletableFuture<List<CategoryTotal>> getCategoryTotals(LocalDateTime from, LocalDateTime to) {
+        Long userId = sessionManager.getCurrentUserId();
+        return userId == null
+            ? CompletableFuture.completedFuture(List.of())
+            : readBarrier().thenCompose(v -> asyncAggregationRepository.sumByCategory(userId, from, to));
+    }
+    
+    /**
+     * Доходы и расходы текущего пользователя за период [from, to)
+     */
+    public CompletableFuture<PeriodTotals> getPeriodTotals(LocalDateTime from, LocalDateTime to) {
+        Long userId = sessionManager.getCurrentUserId();
+        return userId == null
+            ? CompletableFuture.completedFuture(new PeriodTotals(0, 0, 0))
+            : readBarrier().thenCompose(v -> asyncAggregationRepository.totals(userId, from, to));
+    }
+    
+    /**
+     * Пересчитать помесячные итоги по транзакциям (восстановление после сбоев)
+     */
+    public CompletableFuture<Integer> rebuildRollup() {
+        return flushPendingWrites().thenCompose(v -> asyncAggregationRepository.rebuildMonthlyRollup());
+    }
+    
+    /**
+     * Следующая страница истории текущего пользователя (от новых к старым)
+     * Для первой страницы передаётся null; для следующих - последняя транзакция предыдущей страницы
+     */
+    public CompletableFuture<List<Transaction>> loadTransactionPage(Transaction after, int limit) {
+        Long userId = sessionManager.getCurrentUserId();
+        if (userId == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
         
-        // Связываем транзакции с категориями
+        return readBarrier()
+            .thenCompose(v -> after == null
+                ? asyncTransactionRepository.findPage(userId, null, null, limit)
+                : asyncTransactionRepository.findPage(userId, after.getDate(), after.getId(), limit))
+            .thenApply(this::linkCategories);
+    }
+    
+    /**
+     * Барьер перед чтением: дождаться записи отложенных изменений, чтобы запрос их увидел
+     */
+    private CompletableFuture<Void> flushPendingWrites() {
+        return writeQueue.getQueueDepth() == 0
+            ? CompletableFuture.completedFuture(null)
+            : AsyncExecution.run(writeQueue::flush);
+    }
+    
+    /**
+     * Барьер перед каждым чтением данных пользователя: главное окно строится параллельно с loadData,
+     * и все его запросы (списки, суммы, итоги) должны видеть одно и то же состояние -
+     * после заполнения кэша категорий и записи отложенных изменений
+     */
+    private CompletableFuture<Void> readBarrier() {
+        return categoriesLoaded.thenCompose(v -> flushPendingWrites());
+    }
+    
+    /**
+     * Очередь отложенных записей (для метрик)
+     */
+    public WriteBehindQueue getWriteQueue() {
+        return writeQueue;
+    }
+    
+    /**
+     * Связывает транзакции с категориями из кэша
+     */
+    private List<Transaction> linkCategories(List<Transaction> loadedTransactions) {
         for (Transaction transaction : loadedTransactions) {
             if (transaction.getCategoryId() != null) {
                 Category category = categoryCache.get(transaction.getCategoryId());
@@ -93,10 +243,12 @@ public class DataService {
                 }
             }
         }
-        
-        transactions.setAll(loadedTransactions);
+        return loadedTransactions;
     }
 
+    /**
+     * Последние транзакции текущего пользователя (не вся история)
+     */
     public ObservableList<Transaction> getTransactions() {
         return transactions;
     }
@@ -105,58 +257,109 @@ public class DataService {
         return categories;
     }
 
-    public void addTransaction(Transaction transaction) {
+    /**
+     * Добавить транзакцию: список обновляется сразу, запись в БД - через очередь отложенных записей
+     *
+     * @return future, завершающийся после фиксации в БД; при ошибке записи список
+     *         возвращается к состоянию БД, а future завершается ошибкой
+     */
+    public CompletableFuture<Void> addTransaction(Transaction transaction) {
         // Устанавливаем userId
         transaction.setUserId(sessionManager.getCurrentUserId());
-        transactionRepository.save(transaction);
         transactions.add(transaction);
+        return revertOnFailure(writeQueue.enqueueSave(transaction));
     }
     
-    public void updateTransaction(Transaction transaction) {
-        transactionRepository.update(transaction);
+    public CompletableFuture<Void> updateTransaction(Transaction transaction) {
         // Обновляем в списке
         int index = transactions.indexOf(transaction);
         if (index >= 0) {
             transactions.set(index, transaction);
         }
+        return revertOnFailure(writeQueue.enqueueUpdate(transaction));
     }
 
-    public void removeTransaction(Transaction transaction) {
-        transactionRepository.delete(transaction);
+    public CompletableFuture<Void> removeTransaction(Transaction transaction) {
         transactions.remove(transaction);
+        return revertOnFailure(writeQueue.enqueueDelete(transaction));
+    }
+    
+    /**
+     * Список изменён до записи в БД: если запись не удалась, он перезагружается из БД,
+     * чтобы не показывать изменения, которых после перезапуска не будет.
+     * Ошибки одного сброса приходят вместе, перезагрузка на них выполняется одна
+     */
+    private CompletableFuture<Void> revertOnFailure(CompletableFuture<Void> write) {
+        return write.whenComplete((v, error) -> {
+            if (error == null || revertInProgress) {
+                return;
+            }
+            revertInProgress = true;
+            reload().whenComplete((r, reloadError) -> revertInProgress = false);
+        });
     }
 
-    public void addCategory(Category category) {
+    public CompletableFuture<Void> addCategory(Category category) {
         // Устанавливаем userId
         category.setUserId(sessionManager.getCurrentUserId());
-        categoryRepository.save(category);
-        categories.add(category);
-        categoryCache.put(category.getId(), category);
+        return asyncCategoryRepository.save(category).thenRun(() -> {
+            cacheCategory(category);
+            categories.add(category);
+        });
     }
     
-    public void updateCategory(Category category) {
-        categoryRepository.update(category);
-        // Обновляем в списке
-        int index = categories.indexOf(category);
-        if (index >= 0) {
-            categories.set(index, category);
-        }
-        // Обновляем кэш
-        categoryCache.put(category.getId(), category);
+    public CompletableFuture<Void> updateCategory(Category category) {
+        return asyncCategoryRepository.update(category).thenRun(() -> {
+            // Обновляем в списке
+            int index = categories.indexOf(category);
+            if (index >= 0) {
+                categories.set(index, category);
+            }
+            // Обновляем кэш
+            cacheCategory(category);
+        });
     }
 
-    public void removeCategory(Category category) {
-        categoryRepository.delete(category);
-        categories.remove(category);
-        categoryCache.remove(category.getId());
+    /**
+     * Удалить категорию
+     * Отложенные записи могут ссылаться на неё: очередь записывается до удаления, а транзакции
+     * в списке и в очереди остаются без категории, как в БД (ON DELETE SET NULL)
+     */
+    public CompletableFuture<Void> removeCategory(Category category) {
+        Long categoryId = category.getId();
+        return AsyncExecution.run(() -> writeQueue.removeCategory(categoryId, () -> {
+            int errorsBefore = RepositoryErrors.count();
+            categoryRepository.delete(category);
+            if (RepositoryErrors.count() != errorsBefore) {
+                throw new IllegalStateException("Failed to delete category");
+            }
+        })).thenRun(() -> {
+            categories.remove(category);
+            categoryCache.remove(categoryId);
+            for (Transaction transaction : transactions) {
+                if (categoryId.equals(transaction.getCategoryId())) {
+                    transaction.setCategory(null);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Положить категорию в кэш
+     * Репозиторий сообщает об ошибке сохранения только в лог и оставляет ID пустым:
+     * такая категория в БД не записана, и ошибка передаётся вызывающему через future
+     */
+    private void cacheCategory(Category category) {
+        if (category.getId() == null) {
+            throw new IllegalStateException("Category \"" + category.getName() + "\" was not saved");
+        }
+        categoryCache.put(category.getId(), category);
     }
     
     /**
      * Инициализация категорий по умолчанию (без транзакций)
      */
-    private void initializeDefaultCategories() {
-        Long userId = sessionManager.getCurrentUserId();
-        
+    private CompletableFuture<List<Category>> initializeDefaultCategories(Long userId) {
         // Создаём категории доходов
         Category salary = new Category("Заработанная плата", "#00FFA3", TransactionType.INCOME);
         salary.setUserId(userId);
@@ -183,47 +386,73 @@ public class DataService {
         Category taxes = new Category("Налоги", "#FF6B9D", TransactionType.EXPENSE);
         taxes.setUserId(userId);
         
-        // Сохраняем в БД
-        categoryRepository.save(salary);
-        categoryRepository.save(bonus);
-        categoryRepository.save(investments);
-        categoryRepository.save(gift);
-        categoryRepository.save(food);
-        categoryRepository.save(digital);
-        categoryRepository.save(sport);
-        categoryRepository.save(utilities);
-        categoryRepository.save(rent);
-        categoryRepository.save(credit);
-        categoryRepository.save(taxes);
-        
-        categories.addAll(salary, bonus, investments, gift, food, digital, sport, utilities, rent, credit, taxes);
-        
-        // Обновляем кэш
-        categoryCache.put(salary.getId(), salary);
-        categoryCache.put(bonus.getId(), bonus);
-        categoryCache.put(investments.getId(), investments);
-        categoryCache.put(gift.getId(), gift);
-        categoryCache.put(food.getId(), food);
-        categoryCache.put(digital.getId(), digital);
-        categoryCache.put(sport.getId(), sport);
-        categoryCache.put(utilities.getId(), utilities);
-        categoryCache.put(rent.getId(), rent);
-        categoryCache.put(credit.getId(), credit);
-        categoryCache.put(taxes.getId(), taxes);
+        // Сохраняем в БД одной транзакцией
+        List<Category> defaults = List.of(salary, bonus, investments, gift, food, digital, sport, utilities, rent, credit, taxes);
+        return asyncCategoryRepository.saveAll(defaults).thenApply(v -> defaults);
     }
     
     /**
      * Получить категорию по ID
      */
+    @Override
     public Category getCategoryById(Long id) {
         return categoryCache.get(id);
     }
     
+    /**
+     * Найти категорию текущего пользователя по имени и типу (без учёта регистра)
+     */
+    @Override
+    public Category getCategoryByName(String name, TransactionType type) {
+        for (Category category : categoryCache.values()) {
+            if (category.getType() == type && category.getName().equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Импорт транзакций текущего пользователя из CSV с последующей перезагрузкой данных
+     */
+    public CompletableFuture<ImportResult> importTransactions(Path file, ImportProgressListener listener) {
+        CsvTransactionImporter importer = new CsvTransactionImporter(transactionRepository, this);
+        Long userId = sessionManager.getCurrentUserId();
+        
+        return AsyncExecution.supply(() -> {
+            try {
+                return importer.importFile(file, userId, listener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).thenCompose(result -> reload().thenApply(v -> result));
+    }
+    
+    /**
+     * Выгрузка всех транзакций текущего пользователя в файл
+     */
+    public CompletableFuture<ExportResult> exportTransactions(Path file, ExportFormat format) {
+        TransactionExporter exporter = new TransactionExporter(transactionRepository, this);
+        Long userId = sessionManager.getCurrentUserId();
+        
+        return AsyncExecution.supply(() -> {
+            try {
+                // Без отложенных изменений выгрузка разошлась бы с тем, что видит пользователь
+                writeQueue.flushOrFail();
+                return exporter.export(userId, format, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Pending changes were not saved: " + e.getMessage(), e);
+            }
+        });
+    }
+    
     /**
      * Перезагрузить данные из БД
      */
-    public void reload() {
-        loadData();
+    public CompletableFuture<Void> reload() {
+        return loadData();
     }
     
     /**
@@ -0,0 +1,331 @@
+package org.example.service;
+
+import org.example.database.DatabaseManager;
+import org.example.model.Transaction;
+import org.example.repository.TransactionRepositoryExt;
+import org.example.repository.metrics.RepositoryErrors;
+import org.example.util.FxExecutor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отложенная запись изменений транзакций (write-behind) с групповой фиксацией
+ * Изменения копятся в очереди и записываются одной транзакцией БД раз в flushIntervalMillis
+ * или сразу, когда в очереди набирается maxBatch операций: серия быстрых правок
+ * стоит одного fsync вместо fsync на каждое действие.
+ * Подряд идущие однотипные операции записываются пакетами (saveAll/updateAll/deleteAllById),
+ * порядок операций сохраняется. Если сброс не удался, он откатывается целиком и операции
+ * записываются повторно по одной: ошибкой завершаются только future тех, что не записались
+ */
+public class WriteBehindQueue {
+    
+    private enum Kind { SAVE, UPDATE, DELETE }
+    
+    private static final class PendingWrite {
+        final Kind kind;
+        final Transaction transaction;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Throwable failure;
+        
+        PendingWrite(Kind kind, Transaction transaction) {
+            this.kind = kind;
+            this.transaction = transaction;
+        }
+    }
+    
+    private final TransactionRepositoryExt transactionRepository;
+    private final DatabaseManager databaseManager;
+    private final int maxBatch;
+    private final ScheduledExecutorService scheduler;
+    
+    // Сбросы выполняются строго по одному
+    private final Object flushLock = new Object();
+    
+    // Защищены this
+    private List<PendingWrite> pending = new ArrayList<>();
+    private List<PendingWrite> inFlight = List.of();
+    private int maxDepth;
+    
+    private volatile long flushCount;
+    private volatile long flushedWrites;
+    private volatile long lastFlushNanos;
+    
+    public WriteBehindQueue(TransactionRepositoryExt transactionRepository, long flushIntervalMillis, int maxBatch) {
+        this(DatabaseManager.getInstance(), transactionRepository, flushIntervalMillis, maxBatch);
+    }
+    
+    public WriteBehindQueue(DatabaseManager databaseManager, TransactionRepositoryExt transactionRepository,
+                            long flushIntervalMillis, int maxBatch) {
+        this.transactionRepository = transactionRepository;
+        this.databaseManager = databaseManager;
+        this.maxBatch = maxBatch;
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        
+        // Всё, что осталось в очереди, записывается до закрытия пулов соединений
+        databaseManager.addShutdownListener(this::close);
+    }
+    
+    /**
+     * Поставить в очередь сохранение новой транзакции
+     * ID транзакции появится после записи в БД
+     *
+     * @return future, завершающийся в потоке JavaFX после фиксации в БД
+     */
+    public CompletableFuture<Void> enqueueSave(Transaction transaction) {
+        return enqueue(Kind.SAVE, transaction);
+    }
+    
+    /**
+     * Поставить в очередь обновление транзакции
+     * Если транзакция ещё ждёт сохранения в очереди, обновление в неё и входит: сохранение запишет
+     * текущие поля. Обновление транзакции без ID, которая так и не сохранилась, завершится ошибкой
+     */
+    public CompletableFuture<Void> enqueueUpdate(Transaction transaction) {
+        if (transaction.getId() == null) {
+            synchronized (this) {
+                for (PendingWrite write : pending) {
+                    if (write.kind == Kind.SAVE && write.transaction == transaction) {
+                        return write.done;
+                    }
+                }
+            }
+        }
+        return enqueue(Kind.UPDATE, transaction);
+    }
+    
+    public CompletableFuture<Void> enqueueDelete(Transaction transaction) {
+        return enqueue(Kind.DELETE, transaction);
+    }
+    
+    private CompletableFuture<Void> enqueue(Kind kind, Transaction transaction) {
+        PendingWrite write = new PendingWrite(kind, transaction);
+        int depth;
+        
+        synchronized (this) {
+            pending.add(write);
+            depth = pending.size();
+            maxDepth = Math.max(maxDepth, depth + inFlight.size());
+        }
+        
+        if (depth >= maxBatch) {
+            scheduler.execute(this::flush);
+        }
+        return write.done;
+    }
+    
+    /**
+     * Записать все накопленные операции одной транзакцией БД (блокирующий вызов)
+     * Если другой поток уже выполняет сброс, метод дожидается его окончания
+     *
+     * @return количество записанных операций
+     */
+    public int flush() {
+        return flushPending().size();
+    }
+    
+    /**
+     * Записать накопленные операции перед чтением, которое должно видеть все изменения (блокирующий вызов)
+     *
+     * @throws SQLException если часть операций не записалась: в БД нет изменений, показанных пользователю
+     */
+    public void flushOrFail() throws SQLException {
+        long failed = flushPending().stream().filter(write -> write.failure != null).count();
+        if (failed > 0) {
+            throw new SQLException(failed + " queued operations were not written");
+        }
+    }
+    
+    /**
+     * @return записанная порция; у неудавшихся операций заполнено поле failure
+     */
+    private List<PendingWrite> flushPending() {
+        synchronized (flushLock) {
+            List<PendingWrite> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return List.of();
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                inFlight = batch;
+            }
+            
+            long start = System.nanoTime();
+            
+            try {
+                write(batch);
+                
+            } catch (SQLException | RuntimeException e) {
+                // Одна неудачная операция не должна отменять остальные: после отката сброса
+                // операции записываются по одной, каждая своей транзакцией
+                System.err.println("Error flushing write-behind queue, writing " + batch.size()
+                    + " operations one by one: " + e.getMessage());
+                for (PendingWrite write : batch) {
+                    try {
+                        write(List.of(write));
+                    } catch (SQLException | RuntimeException writeError) {
+                        System.err.println("Error writing queued " + write.kind + " operation: " + writeError.getMessage());
+                        writeError.printStackTrace();
+                        write.failure = writeError;
+                    }
+                }
+            }
+            
+            lastFlushNanos = System.nanoTime() - start;
+            flushCount++;
+            flushedWrites += batch.size();
+            synchronized (this) {
+                inFlight = List.of();
+            }
+            
+            FxExecutor.INSTANCE.execute(() -> {
+                for (PendingWrite write : batch) {
+                    if (write.failure != null) {
+                        write.done.completeExceptionally(write.failure);
+                    } else {
+                        write.done.complete(null);
+                    }
+                }
+            });
+            
+            return batch;
+        }
+    }
+    
+    /**
+     * Записать операции одной транзакцией БД
+     * При ошибке транзакция откатывается: ID, выданные в ней новым транзакциям, недействительны
+     */
+    private void write(List<PendingWrite> writes) throws SQLException {
+        try {
+            databaseManager.write(conn -> {
+                apply(writes);
+                return null;
+            });
+            
+        } catch (SQLException | RuntimeException e) {
+            for (PendingWrite write : writes) {
+                if (write.kind == Kind.SAVE) {
+                    write.transaction.setId(null);
+                }
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Выполняется в потоке db-writer внутри транзакции сброса:
+     * вызовы репозитория присоединяются к ней как вложенные записи.
+     * Репозиторий перехватывает SQLException сам, поэтому ошибка видна только по приросту
+     * RepositoryErrors; она пробрасывается дальше, чтобы откатить весь сброс
+     */
+    private void apply(List<PendingWrite> batch) throws SQLException {
+        int start = 0;
+        while (start < batch.size()) {
+            Kind kind = batch.get(start).kind;
+            List<Transaction> run = new ArrayList<>();
+            
+            int end = start;
+            while (end < batch.size() && batch.get(end).kind == kind) {
+                run.add(batch.get(end).transaction);
+                end++;
+            }
+            
+            int errorsBefore = RepositoryErrors.count();
+            switch (kind) {
+                case SAVE -> transactionRepository.saveAll(run);
+                case UPDATE -> {
+                    // Сохранение транзакции не удалось: обновлять в БД нечего
+                    for (Transaction transaction : run) {
+                        if (transaction.getId() == null) {
+                            throw new SQLException("Transaction \"" + transaction.getDescription() + "\" was not saved");
+                        }
+                    }
+                    transactionRepository.updateAll(run);
+                }
+                case DELETE -> {
+                    // ID берутся здесь, а не при постановке в очередь: транзакция могла быть сохранена в этом же сбросе
+                    List<Long> ids = new ArrayList<>(run.size());
+                    for (Transaction transaction : run) {
+                        if (transaction.getId() != null) {
+                            ids.add(transaction.getId());
+                        }
+                    }
+                    transactionRepository.deleteAllById(ids);
+                }
+            }
+            if (RepositoryErrors.count() != errorsBefore) {
+                throw new SQLException("Failed to write " + run.size() + " queued " + kind + " operations");
+            }
+            start = end;
+        }
+    }
+    
+    /**
+     * Удалить категорию (блокирующий вызов): очередь записывается до удаления, а транзакции,
+     * поставленные в очередь за это время, теряют категорию, как в БД при ON DELETE SET NULL.
+     * Сбросы на время удаления приостанавливаются, поэтому ссылка на удалённую категорию
+     * не попадёт в БД и не нарушит внешний ключ
+     *
+     * @param delete удаление категории из БД; при ошибке очередь не меняется
+     */
+    public void removeCategory(Long categoryId, Runnable delete) {
+        synchronized (flushLock) {
+            flush();
+            delete.run();
+            
+            synchronized (this) {
+                for (PendingWrite write : pending) {
+                    if (categoryId.equals(write.transaction.getCategoryId())) {
+                        write.transaction.setCategory(null);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Остановить периодический сброс и записать остаток очереди
+     */
+    public void close() {
+        scheduler.shutdown();
+        int flushed = flush();
+        System.out.println("Write-behind queue closed: " + flushed + " pending writes flushed, "
+            + flushedWrites + " writes in " + flushCount + " commits");
+    }
+    
+    /**
+     * Операции, ещё не зафиксированные в БД (в очереди и в выполняющемся сбросе)
+     */
+    public synchronized int getQueueDepth() {
+        return pending.size() + inFlight.size();
+    }
+    
+    public synchronized int getMaxQueueDepth() {
+        return maxDepth;
+    }
+    
+    public long getFlushCount() {
+        return flushCount;
+    }
+    
+    public long getFlushedWrites() {
+        return flushedWrites;
+    }
+    
+    public long getLastFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastFlushNanos);
+    }
+}
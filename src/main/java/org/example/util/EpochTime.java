@@ -0,0 +1,23 @@
+package org.example.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Хранение дат транзакций как INTEGER (секунды от 1970-01-01T00:00)
+ * Локальное время записывается как есть, без перевода часовых поясов: значение совпадает
+ * с strftime('%s', date) в SQLite и не зависит от перехода на летнее время
+ */
+public final class EpochTime {
+    
+    private EpochTime() {
+    }
+    
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    public static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
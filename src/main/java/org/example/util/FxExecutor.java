@@ -0,0 +1,31 @@
+package org.example.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor, выполняющий задачи в потоке JavaFX Application Thread
+ * Если платформа JavaFX не запущена (консольный режим), задача выполняется в вызывающем потоке
+ */
+public final class FxExecutor implements Executor {
+    
+    public static final FxExecutor INSTANCE = new FxExecutor();
+    
+    private FxExecutor() {
+    }
+    
+    @Override
+    public void execute(Runnable command) {
+        if (Platform.isFxApplicationThread()) {
+            command.run();
+            return;
+        }
+        
+        try {
+            Platform.runLater(command);
+        } catch (IllegalStateException e) {
+            command.run(); // Toolkit не инициализирован
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.util;
+
+/**
+ * Денежные суммы в копейках (long)
+ * Разбор и форматирование без double и String.format, поэтому суммы не накапливают
+ * ошибку округления, а форматирование не создаёт лишних объектов
+ */
+public final class Money {
+    
+    public static final long KOPECKS_PER_RUBLE = 100;
+    
+    private Money() {
+    }
+    
+    /**
+     * Разбор суммы: "1234.56", "1234,56", "1 234,56", "1,234.56", "-12.5"
+     * Пробелы (в том числе неразрывные) между разрядами пропускаются;
+     * запятая - дробный разделитель, если в строке нет точки
+     *
+     * @return сумма в копейках
+     * @throws NumberFormatException если строка не является суммой или в ней больше двух знаков после запятой
+     */
+    public static long parse(String value) {
+        char decimalSeparator = value.indexOf('.') >= 0 ? '.' : ',';
+        long rubles = 0;
+        long kopecks = 0;
+        int fractionDigits = -1; // -1 - дробная часть ещё не началась
+        boolean negative = false;
+        boolean hasDigits = false;
+        
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            
+            if (c >= '0' && c <= '9') {
+                hasDigits = true;
+                if (fractionDigits < 0) {
+                    rubles = Math.addExact(Math.multiplyExact(rubles, 10), c - '0');
+                } else if (fractionDigits < 2) {
+                    kopecks = kopecks * 10 + (c - '0');
+                    fractionDigits++;
+                } else {
+                    throw new NumberFormatException("Too many fraction digits: " + value);
+                }
+            } else if (c == decimalSeparator && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c == '-' && !hasDigits && !negative) {
+                negative = true;
+            } else if (c != '+' && c != ',' && c != '\u00A0' && !Character.isWhitespace(c)) {
+                throw new NumberFormatException("Invalid amount: " + value);
+            }
+        }
+        
+        if (!hasDigits) {
+            throw new NumberFormatException("Invalid amount: " + value);
+        }
+        if (fractionDigits == 1) {
+            kopecks *= 10; // "12.5" -> 12 руб. 50 коп.
+        }
+        
+        long amount = Math.addExact(Math.multiplyExact(rubles, KOPECKS_PER_RUBLE), kopecks);
+        return negative ? -amount : amount;
+    }
+    
+    /**
+     * Сумма в виде "1234.56" (со знаком минус для отрицательных)
+     */
+    public static String format(long amount) {
+        return appendTo(new StringBuilder(24), amount).toString();
+    }
+    
+    /**
+     * Сумма по модулю с валютой: "1234.56 руб."
+     */
+    public static String formatRubles(long amount) {
+        return appendTo(new StringBuilder(32), Math.abs(amount)).append(" руб.").toString();
+    }
+    
+    /**
+     * Дописать сумму в виде "1234.56" в builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long amount) {
+        if (amount < 0) {
+            builder.append('-');
+        }
+        long abs = Math.abs(amount);
+        long kopecks = abs % KOPECKS_PER_RUBLE;
+        builder.append(abs / KOPECKS_PER_RUBLE).append('.');
+        if (kopecks < 10) {
+            builder.append('0');
+        }
+        return builder.append(kopecks);
+    }
+    
+    /**
+     * Сумма в рублях для отображения на диаграммах (не для расчётов)
+     */
+    public static double toRubles(long amount) {
+        return amount / (double) KOPECKS_PER_RUBLE;
+    }
+}
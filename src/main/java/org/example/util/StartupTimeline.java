@@ -0,0 +1,152 @@
+package org.example.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Хронология запуска приложения: фазы с потоком, началом и длительностью
+ * Время отсчитывается от старта процесса JVM, поэтому в хронологию попадает и загрузка классов
+ * до вызова main. Фазы могут записываться из разных потоков и пересекаться во времени -
+ * так видно, что выполнялось параллельно. После complete() новые фазы не записываются:
+ * повторный вход в приложение к запуску уже не относится
+ */
+public final class StartupTimeline {
+    
+    private static final StartupTimeline INSTANCE = new StartupTimeline();
+    
+    private final long originNanos = System.nanoTime();
+    private final long originMillis;
+    private final List<Phase> phases = new ArrayList<>();
+    private boolean completed;
+    
+    private StartupTimeline() {
+        originMillis = ProcessHandle.current().info().startInstant()
+            .map(start -> Duration.between(start, Instant.now()).toMillis())
+            .orElse(0L);
+    }
+    
+    public static StartupTimeline getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Начатая фаза; длительность записывается вызовом end()
+     */
+    public final class Span {
+        private final String name;
+        private final String thread = Thread.currentThread().getName();
+        private final long startNanos = System.nanoTime();
+        
+        private Span(String name) {
+            this.name = name;
+        }
+        
+        public void end() {
+            record(new Phase(name, thread, sinceStart(startNanos), System.nanoTime() - startNanos));
+        }
+    }
+    
+    private static final class Phase {
+        final String name;
+        final String thread;
+        final long startMillis;
+        final long durationNanos;
+        
+        Phase(String name, String thread, long startMillis, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startMillis = startMillis;
+            this.durationNanos = durationNanos;
+        }
+    }
+    
+    public Span begin(String phase) {
+        return new Span(phase);
+    }
+    
+    public void time(String phase, Runnable work) {
+        Span span = begin(phase);
+        try {
+            work.run();
+        } finally {
+            span.end();
+        }
+    }
+    
+    public <T> T time(String phase, Supplier<T> work) {
+        Span span = begin(phase);
+        try {
+            return work.get();
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Асинхронная фаза: от вызова до завершения future (успешного или с ошибкой)
+     */
+    public <T> CompletableFuture<T> time(String phase, CompletableFuture<T> future) {
+        Span span = begin(phase);
+        future.whenComplete((value, error) -> span.end());
+        return future;
+    }
+    
+    /**
+     * Событие без длительности
+     */
+    public void mark(String event) {
+        record(new Phase(event, Thread.currentThread().getName(), sinceStart(System.nanoTime()), 0));
+    }
+    
+    private synchronized void record(Phase phase) {
+        if (!completed) {
+            phases.add(phase);
+        }
+    }
+    
+    private long sinceStart(long nanos) {
+        return originMillis + (nanos - originNanos) / 1_000_000;
+    }
+    
+    /**
+     * Фазы в порядке начала: начало от старта JVM, длительность, поток
+     */
+    public synchronized String dump() {
+        List<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort(Comparator.comparingLong(phase -> phase.startMillis));
+        
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : sorted) {
+            sb.append(String.format("  %6d ms  %6d ms  %-26s %s%n",
+                phase.startMillis, phase.durationNanos / 1_000_000, phase.thread, phase.name));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Вывести хронологию в лог
+     *
+     * @param milestone достигнутая точка запуска (например, "login screen shown")
+     */
+    public synchronized void log(String milestone) {
+        if (completed) {
+            return;
+        }
+        mark(milestone);
+        System.out.print("Startup timeline (" + milestone + "):\n"
+            + String.format("  %6s     %6s     %-26s %s%n", "start", "took", "thread", "phase") + dump());
+    }
+    
+    /**
+     * Вывести хронологию и закончить запись: приложение запущено
+     */
+    public synchronized void complete(String milestone) {
+        log(milestone);
+        completed = true;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.database;
+
+import org.example.model.User;
+import org.example.repository.impl.UserRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseManagerTest {
+    
+    private DatabaseManager databaseManager;
+    private UserRepositoryImpl userRepository;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+        userRepository = new UserRepositoryImpl(databaseManager);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void inMemoryReaderDoesNotSeeUncommittedWrite() {
+        // Читатель запускается, пока транзакция писателя открыта; затем транзакция откатывается
+        CompletableFuture<Boolean> reader = new CompletableFuture<>();
+        assertThrows(SQLException.class, () -> databaseManager.write(conn -> {
+            userRepository.save(new User("rolled-back", "hash", null));
+            CompletableFuture.supplyAsync(() -> userRepository.existsByUsername("rolled-back"))
+                .whenComplete((exists, error) -> reader.complete(exists));
+            sleep();
+            throw new SQLException("abort");
+        }));
+        
+        assertFalse(reader.join());
+        assertFalse(userRepository.existsByUsername("rolled-back"));
+    }
+    
+    @Test
+    void inMemoryReaderSeesCommittedWrite() throws SQLException {
+        databaseManager.write(conn -> {
+            userRepository.save(new User("committed", "hash", null));
+            return null;
+        });
+        
+        assertTrue(userRepository.existsByUsername("committed"));
+    }
+    
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.database.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigrationRunnerTest {
+    
+    private Connection conn;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+    
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+    
+    @Test
+    void appliesPendingMigrationsInOrder() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(List.of(
+            migration(1, "CREATE TABLE a (id INTEGER)"),
+            migration(2, "CREATE TABLE b (id INTEGER)")));
+        
+        assertEquals(2, runner.migrate(conn));
+        assertEquals(2, runner.getCurrentVersion(conn));
+        assertEquals(0, runner.migrate(conn));
+        assertTrue(tableExists("b"));
+    }
+    
+    @Test
+    void failedMigrationIsRolledBack() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(List.of(
+            migration(1, "CREATE TABLE a (id INTEGER)"),
+            migration(2, "CREATE TABLE b (id INTEGER)", "INSERT INTO missing VALUES (1)")));
+        
+        assertThrows(SQLException.class, () -> runner.migrate(conn));
+        
+        assertEquals(1, runner.getCurrentVersion(conn));
+        assertTrue(tableExists("a"));
+        assertFalse(tableExists("b"));
+    }
+    
+    @Test
+    void tableCopierCopiesAllChunks() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE source (id INTEGER PRIMARY KEY, value INTEGER)");
+            stmt.execute("CREATE TABLE target (id INTEGER PRIMARY KEY, value INTEGER)");
+            for (int i = 1; i <= 25; i++) {
+                stmt.execute("INSERT INTO source VALUES (" + i + ", " + i + ")");
+            }
+        }
+        
+        assertEquals(25, TableCopier.copy(conn, "source", "target", "id, value", "id, value * 10", 10));
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*), SUM(value) FROM target")) {
+            rs.next();
+            assertEquals(25, rs.getInt(1));
+            assertEquals(3250, rs.getInt(2));
+        }
+    }
+    
+    @Test
+    void danglingReferencesAreClearedWithRollup() throws SQLException {
+        List<Migration> all = Migrations.all();
+        new MigrationRunner(all.subList(0, all.size() - 1)).migrate(conn);
+        
+        // Внешние ключи на этом соединении не проверяются, как в БД до их включения
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO users (id, username, password_hash, created_at) VALUES (1, 'u', 'h', '2025-01-01')");
+            stmt.execute("INSERT INTO categories (id, name, color, type, user_id) VALUES (10, 'Еда', '#fff', 'EXPENSE', 1)");
+            stmt.execute("INSERT INTO transactions (description, amount, date, category_id, type, user_id) "
+                + "VALUES ('a', -100, 1735700000, 10, 'EXPENSE', 1), ('b', -200, 1735700000, 10, 'EXPENSE', 1), "
+                + "('orphan', -300, 1735700000, NULL, 'EXPENSE', 2)");
+            stmt.execute("DELETE FROM categories WHERE id = 10");
+        }
+        
+        assertEquals(1, new MigrationRunner(all).migrate(conn));
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*), COUNT(category_id) FROM transactions")) {
+            rs.next();
+            assertEquals(2, rs.getInt(1));
+            assertEquals(0, rs.getInt(2));
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT category_id, total, count FROM rollup_monthly")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getLong(1));
+            assertEquals(300, rs.getLong(2));
+            assertEquals(2, rs.getLong(3));
+            assertFalse(rs.next());
+        }
+    }
+    
+    private boolean tableExists(String name) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + name + "'")) {
+            return rs.next();
+        }
+    }
+    
+    private static Migration migration(int version, String... statements) {
+        return new Migration() {
+            @Override
+            public int getVersion() {
+                return version;
+            }
+            
+            @Override
+            public String getDescription() {
+                return "test V" + version;
+            }
+            
+            @Override
+            public void migrate(Connection conn) throws SQLException {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : statements) {
+                        stmt.execute(sql);
+                    }
+                }
+            }
+        };
+    }
+}
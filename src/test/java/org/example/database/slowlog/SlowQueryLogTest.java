@@ -0,0 +1,64 @@
+package org.example.database.slowlog;
+
+import org.example.config.DatabaseType;
+import org.example.database.dialect.SqlDialect;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+    
+    private static final long MAX_BYTES = 1024;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void writesPlanFromSeparateConnectionAndRotatesByBytes() throws SQLException, IOException {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + directory.resolve("test.db"));
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE notes (id INTEGER PRIMARY KEY, body TEXT)");
+        }
+        
+        // Порог 0: записывается каждый запрос
+        Path file = directory.resolve("slow.log");
+        SlowQueryLog log = new SlowQueryLog(SqlDialect.forType(DatabaseType.SQLITE), 0, file, MAX_BYTES, 3);
+        log.setPlanDataSource(dataSource);
+        
+        try (Connection conn = log.wrap(dataSource.getConnection())) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < 20; i++) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT body FROM notes WHERE body = ? -- запрос " + i)) {
+                    pstmt.setString(1, "заметка");
+                    pstmt.executeQuery().close();
+                }
+            }
+            conn.commit();
+        }
+        log.close();
+        
+        assertEquals(20, log.getLoggedQueries());
+        assertEquals(0, log.getDroppedQueries());
+        
+        String current = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(current.contains("params: [String]"));
+        assertTrue(current.contains("SCAN notes"), current);
+        for (Path part : new Path[]{file, directory.resolve("slow.log.1"), directory.resolve("slow.log.2")}) {
+            assertTrue(Files.exists(part), part.toString());
+            assertTrue(Files.size(part) <= MAX_BYTES, part + ": " + Files.size(part) + " bytes");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.io;
+
+import org.example.database.DatabaseManager;
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.example.repository.impl.CategoryRepositoryImpl;
+import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.impl.UserRepositoryImpl;
+import org.example.repository.metrics.RepositoryErrors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvTransactionImporterTest {
+    
+    private DatabaseManager databaseManager;
+    private TransactionRepositoryImpl transactionRepository;
+    private Long userId;
+    private CategoryIndex categories;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+        transactionRepository = new TransactionRepositoryImpl(databaseManager);
+        
+        User user = new User("importer", "hash", null);
+        new UserRepositoryImpl(databaseManager).save(user);
+        userId = user.getId();
+        
+        Category food = new Category("Продукты", "#FF4757", TransactionType.EXPENSE);
+        food.setUserId(userId);
+        CategoryRepositoryImpl categoryRepository = new CategoryRepositoryImpl(databaseManager);
+        categoryRepository.save(food);
+        categories = new CategoryIndex(categoryRepository.findByUserId(userId));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void importsRowsInBatches() throws IOException {
+        List<Long> progress = new ArrayList<>();
+        CsvTransactionImporter importer = new CsvTransactionImporter(transactionRepository, categories, 2);
+        
+        ImportResult result = importer.importFrom(csv(
+            "date;amount;description;category",
+            "2025-01-05;-150,50;Хлеб;Продукты",
+            "05.01.2025 18:30;2000;Премия;",
+            "not a date;10;Ошибка;",
+            "2025-01-06T09:15;-99;Молоко;Продукты"), userId, (rows, elapsed) -> progress.add(rows));
+        
+        assertTrue(result.isComplete());
+        assertEquals(3, result.getImportedRows());
+        assertEquals(1, result.getSkippedRows());
+        assertEquals(1, result.getUncategorizedRows());
+        assertEquals(List.of(2L, 3L), progress);
+        
+        List<Transaction> saved = transactionRepository.findByUserId(userId);
+        assertEquals(3, saved.size());
+        
+        Transaction latest = saved.get(0);
+        assertEquals("Молоко", latest.getDescription());
+        assertEquals(-9900, latest.getAmount());
+        assertEquals(LocalDateTime.of(2025, 1, 6, 9, 15), latest.getDate());
+        assertEquals(categories.getCategoryByName("Продукты", TransactionType.EXPENSE).getId(), latest.getCategoryId());
+        
+        Transaction bonus = saved.get(1);
+        assertEquals(TransactionType.INCOME, bonus.getType());
+        assertEquals(200_000, bonus.getAmount());
+    }
+    
+    @Test
+    void stopsWhenBatchIsNotWritten() throws IOException {
+        // Вторая порция "не записывается": репозиторий сообщает об ошибке, как при SQLException
+        TransactionRepositoryImpl failingRepository = new TransactionRepositoryImpl(databaseManager) {
+            private int calls;
+            
+            @Override
+            public void saveAll(List<Transaction> transactions) {
+                if (++calls == 2) {
+                    RepositoryErrors.report("Error saving transactions batch", new SQLException("disk I/O error"));
+                    return;
+                }
+                super.saveAll(transactions);
+            }
+        };
+        CsvTransactionImporter importer = new CsvTransactionImporter(failingRepository, categories, 2);
+        
+        ImportResult result = importer.importFrom(csv(
+            "date,amount",
+            "2025-01-01,-1",
+            "2025-01-02,-2",
+            "2025-01-03,-3",
+            "2025-01-04,-4",
+            "2025-01-05,-5"), userId, null);
+        
+        assertFalse(result.isComplete());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(2, transactionRepository.findByUserId(userId).size());
+    }
+    
+    private static BufferedReader csv(String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines) + "\n"));
+    }
+}
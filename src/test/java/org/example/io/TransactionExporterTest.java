@@ -0,0 +1,89 @@
+package org.example.io;
+
+import org.example.database.DatabaseManager;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.impl.UserRepositoryImpl;
+import org.example.repository.metrics.RepositoryErrors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionExporterTest {
+    
+    @TempDir
+    Path directory;
+    
+    private DatabaseManager databaseManager;
+    private TransactionRepositoryImpl transactionRepository;
+    private Long userId;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+        transactionRepository = new TransactionRepositoryImpl(databaseManager);
+        
+        User user = new User("exporter", "hash", null);
+        new UserRepositoryImpl(databaseManager).save(user);
+        userId = user.getId();
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction("#" + i, -100 * (i + 1), LocalDateTime.of(2025, 6, 1 + i, 12, 0),
+                null, TransactionType.EXPENSE);
+            transaction.setUserId(userId);
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void exportsAllRows() throws IOException {
+        Path file = directory.resolve("history.csv");
+        
+        ExportResult result = new TransactionExporter(transactionRepository, new CategoryIndex(List.of()))
+            .export(userId, ExportFormat.CSV, file);
+        
+        assertEquals(3, result.getRows());
+        assertEquals(4, Files.readAllLines(file).size());
+    }
+    
+    @Test
+    void interruptedCursorFailsExportAndRemovesFile() {
+        // Курсор обрывается после первой строки: репозиторий сообщает об ошибке и возвращает частичный счёт
+        TransactionRepositoryImpl failingRepository = new TransactionRepositoryImpl(databaseManager) {
+            @Override
+            public long streamByUserId(Long userId, Consumer<Transaction> consumer) {
+                consumer.accept(transactionRepository.findByUserId(userId).get(0));
+                RepositoryErrors.report("Error streaming transactions by user id", new SQLException("disk I/O error"));
+                return 1;
+            }
+        };
+        Path file = directory.resolve("history.jsonl");
+        
+        assertThrows(IOException.class, () -> new TransactionExporter(failingRepository, new CategoryIndex(List.of()))
+            .export(userId, ExportFormat.NDJSON, file));
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.repository.impl;
+
+import org.example.database.DatabaseManager;
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CategoryRepositoryImplTest {
+    
+    private DatabaseManager databaseManager;
+    private CategoryRepositoryImpl categoryRepository;
+    private TransactionRepositoryImpl transactionRepository;
+    private Long userId;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+        categoryRepository = new CategoryRepositoryImpl(databaseManager);
+        transactionRepository = new TransactionRepositoryImpl(databaseManager);
+        
+        User user = new User("categories", "hash", null);
+        new UserRepositoryImpl(databaseManager).save(user);
+        userId = user.getId();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void deleteClearsCategoryOfItsTransactions() throws SQLException {
+        Category food = new Category("Продукты", "#FF4757", TransactionType.EXPENSE);
+        food.setUserId(userId);
+        categoryRepository.save(food);
+        
+        Transaction transaction = new Transaction("Хлеб", -5000, LocalDateTime.of(2025, 2, 3, 9, 0), food,
+            TransactionType.EXPENSE);
+        transaction.setUserId(userId);
+        transactionRepository.save(transaction);
+        
+        categoryRepository.delete(food);
+        
+        assertNull(transactionRepository.findById(transaction.getId()).orElseThrow().getCategoryId());
+        try (Connection conn = databaseManager.getReadConnection()) {
+            assertEquals(List.of(), databaseManager.getDialect().checkIntegrity(conn));
+        }
+        assertEquals(0, new AggregationRepositoryImpl(databaseManager).countRollupMismatches());
+    }
+}
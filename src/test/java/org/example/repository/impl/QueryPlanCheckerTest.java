@@ -0,0 +1,37 @@
+package org.example.repository.impl;
+
+import org.example.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Планы всех запросов репозиториев на схеме после миграций: без полного просмотра таблиц
+ */
+class QueryPlanCheckerTest {
+    
+    private DatabaseManager databaseManager;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void repositoryQueriesUseIndexes() throws Exception {
+        try (Connection conn = databaseManager.getReadConnection()) {
+            List<String> violations = QueryPlanChecker.check(conn);
+            assertEquals(List.of(), violations);
+        }
+    }
+}
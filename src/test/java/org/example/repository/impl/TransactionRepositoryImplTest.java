@@ -0,0 +1,83 @@
+package org.example.repository.impl;
+
+import org.example.database.DatabaseManager;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRepositoryImplTest {
+    
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 12, 0);
+    
+    private DatabaseManager databaseManager;
+    private TransactionRepositoryImpl repository;
+    private Long userId;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+        repository = new TransactionRepositoryImpl(databaseManager);
+        
+        User user = new User("pager", "hash", null);
+        new UserRepositoryImpl(databaseManager).save(user);
+        userId = user.getId();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void pagesWalkHistoryWithoutGapsOrRepeats() {
+        // Три операции в одну секунду: порядок внутри даты задаёт id, граница страниц проходит между ними
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime date = i < 3 ? DAY : DAY.minusDays(i);
+            transactions.add(transaction("#" + i, date));
+        }
+        repository.saveAll(transactions);
+        
+        List<Transaction> expected = repository.findByUserId(userId);
+        List<Transaction> walked = new ArrayList<>();
+        List<Transaction> page = repository.findPage(userId, null, null, 2);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 2);
+            walked.addAll(page);
+            Transaction last = page.get(page.size() - 1);
+            page = repository.findPage(userId, last.getDate(), last.getId(), 2);
+        }
+        
+        assertEquals(ids(expected), ids(walked));
+        assertEquals(7, walked.size());
+    }
+    
+    @Test
+    void pageAfterLastRowIsEmpty() {
+        Transaction only = transaction("Единственная", DAY);
+        repository.save(only);
+        
+        assertEquals(List.of(only.getId()), ids(repository.findPage(userId, null, null, 10)));
+        assertTrue(repository.findPage(userId, only.getDate(), only.getId(), 10).isEmpty());
+    }
+    
+    private Transaction transaction(String description, LocalDateTime date) {
+        Transaction transaction = new Transaction(description, -100, date, null, TransactionType.EXPENSE);
+        transaction.setUserId(userId);
+        return transaction;
+    }
+    
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+}
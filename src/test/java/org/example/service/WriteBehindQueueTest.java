@@ -0,0 +1,181 @@
+package org.example.service;
+
+import org.example.database.DatabaseManager;
+import org.example.model.Category;
+import org.example.model.Transaction;
+import org.example.model.TransactionType;
+import org.example.model.User;
+import org.example.repository.impl.CategoryRepositoryImpl;
+import org.example.repository.impl.TransactionRepositoryImpl;
+import org.example.repository.impl.UserRepositoryImpl;
+import org.example.repository.metrics.RepositoryErrors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+    
+    // Периодический сброс не успевает сработать: очередь сбрасывается только вызовом flush()
+    private static final long FLUSH_INTERVAL_MILLIS = 60_000;
+    private static final int MAX_BATCH = 100;
+    
+    private DatabaseManager databaseManager;
+    private TransactionRepositoryImpl repository;
+    private Long userId;
+    
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.inMemory();
+        repository = new TransactionRepositoryImpl(databaseManager);
+        
+        User user = new User("queue", "hash", null);
+        new UserRepositoryImpl(databaseManager).save(user);
+        userId = user.getId();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+    
+    @Test
+    void flushWritesOperationsInOrder() {
+        WriteBehindQueue queue = new WriteBehindQueue(databaseManager, repository, FLUSH_INTERVAL_MILLIS, MAX_BATCH);
+        Transaction existing = transaction("Была");
+        repository.save(existing);
+        Transaction kept = transaction("Остаётся");
+        Transaction removed = transaction("Удаляется");
+        
+        CompletableFuture<Void> saved = queue.enqueueSave(kept);
+        queue.enqueueSave(removed);
+        existing.setDescription("Изменена");
+        queue.enqueueUpdate(existing);
+        CompletableFuture<Void> deleted = queue.enqueueDelete(removed);
+        assertEquals(4, queue.getQueueDepth());
+        
+        assertEquals(4, queue.flush());
+        
+        assertTrue(saved.isDone() && !saved.isCompletedExceptionally());
+        assertTrue(deleted.isDone() && !deleted.isCompletedExceptionally());
+        assertEquals(0, queue.getQueueDepth());
+        assertEquals(1, queue.getFlushCount());
+        
+        List<Transaction> stored = repository.findByUserId(userId);
+        assertEquals(List.of(kept.getId(), existing.getId()),
+            stored.stream().map(Transaction::getId).sorted(Comparator.reverseOrder()).toList());
+        assertEquals("Изменена", repository.findById(existing.getId()).orElseThrow().getDescription());
+    }
+    
+    @Test
+    void failedOperationIsRetriedAloneAndOthersAreWritten() {
+        // Пакетное обновление "не записывается": репозиторий сообщает об ошибке, как при SQLException
+        TransactionRepositoryImpl failingRepository = new TransactionRepositoryImpl(databaseManager) {
+            @Override
+            public void updateAll(List<Transaction> transactions) {
+                RepositoryErrors.report("Error updating transactions batch", new SQLException("disk I/O error"));
+            }
+        };
+        WriteBehindQueue queue = new WriteBehindQueue(databaseManager, failingRepository, FLUSH_INTERVAL_MILLIS, MAX_BATCH);
+        Transaction existing = transaction("Была");
+        repository.save(existing);
+        Transaction added = transaction("Новая");
+        
+        CompletableFuture<Void> saved = queue.enqueueSave(added);
+        CompletableFuture<Void> updated = queue.enqueueUpdate(existing);
+        queue.flush();
+        
+        // Сброс откатился целиком, затем сохранение записано отдельно, а обновление - нет
+        assertTrue(saved.isDone() && !saved.isCompletedExceptionally());
+        assertTrue(updated.isCompletedExceptionally());
+        assertNotNull(added.getId());
+        assertEquals(List.of(added.getId(), existing.getId()),
+            repository.findByUserId(userId).stream().map(Transaction::getId).sorted(Comparator.reverseOrder()).toList());
+    }
+    
+    @Test
+    void updateOfPendingSaveIsWrittenBySave() {
+        WriteBehindQueue queue = new WriteBehindQueue(databaseManager, repository, FLUSH_INTERVAL_MILLIS, MAX_BATCH);
+        Transaction added = transaction("Новая");
+        
+        CompletableFuture<Void> saved = queue.enqueueSave(added);
+        added.setDescription("Изменена до записи");
+        assertSame(saved, queue.enqueueUpdate(added));
+        assertEquals(1, queue.getQueueDepth());
+        
+        queue.flush();
+        
+        assertEquals("Изменена до записи", repository.findById(added.getId()).orElseThrow().getDescription());
+    }
+    
+    @Test
+    void updateOfFailedSaveIsRejected() {
+        // Сохранение "не записывается": ID остаётся пустым
+        TransactionRepositoryImpl failingRepository = new TransactionRepositoryImpl(databaseManager) {
+            @Override
+            public void saveAll(List<Transaction> transactions) {
+                RepositoryErrors.report("Error saving transactions batch", new SQLException("disk I/O error"));
+            }
+        };
+        WriteBehindQueue queue = new WriteBehindQueue(databaseManager, failingRepository, FLUSH_INTERVAL_MILLIS, MAX_BATCH);
+        Transaction added = transaction("Новая");
+        
+        CompletableFuture<Void> saved = queue.enqueueSave(added);
+        queue.flush();
+        assertTrue(saved.isCompletedExceptionally());
+        assertNull(added.getId());
+        
+        CompletableFuture<Void> updated = queue.enqueueUpdate(added);
+        queue.flush();
+        
+        assertTrue(updated.isCompletedExceptionally());
+        assertTrue(repository.findByUserId(userId).isEmpty());
+    }
+    
+    @Test
+    void removedCategoryIsClearedFromPendingWrites() {
+        CategoryRepositoryImpl categoryRepository = new CategoryRepositoryImpl(databaseManager);
+        Category food = new Category("Продукты", "#FF4757", TransactionType.EXPENSE);
+        food.setUserId(userId);
+        categoryRepository.save(food);
+        
+        WriteBehindQueue queue = new WriteBehindQueue(databaseManager, repository, FLUSH_INTERVAL_MILLIS, MAX_BATCH);
+        Transaction flushed = transaction("До удаления");
+        flushed.setCategory(food);
+        queue.enqueueSave(flushed);
+        
+        // Транзакция ставится в очередь во время удаления: ссылка на категорию не должна дойти до БД
+        Transaction queued = transaction("Во время удаления");
+        queued.setCategory(food);
+        queue.removeCategory(food.getId(), () -> {
+            queue.enqueueSave(queued);
+            categoryRepository.delete(food);
+        });
+        assertNull(queued.getCategoryId());
+        
+        CompletableFuture<Void> saved = queue.enqueueSave(transaction("После удаления"));
+        queue.flush();
+        
+        assertTrue(saved.isDone() && !saved.isCompletedExceptionally());
+        assertNull(repository.findById(flushed.getId()).orElseThrow().getCategoryId());
+        assertNull(repository.findById(queued.getId()).orElseThrow().getCategoryId());
+    }
+    
+    private Transaction transaction(String description) {
+        Transaction transaction = new Transaction(description, -100, LocalDateTime.of(2025, 5, 1, 10, 0), null,
+            TransactionType.EXPENSE);
+        transaction.setUserId(userId);
+        return transaction;
+    }
+}
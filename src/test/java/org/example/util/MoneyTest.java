@@ -0,0 +1,46 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+    
+    @Test
+    void parsesDecimalAndGroupSeparators() {
+        assertEquals(123_456, Money.parse("1234.56"));
+        assertEquals(123_456, Money.parse("1234,56"));
+        assertEquals(123_456, Money.parse("1 234,56"));
+        assertEquals(123_456, Money.parse("1\u00A0234,56"));
+        assertEquals(123_456, Money.parse("1,234.56"));
+        assertEquals(200_000, Money.parse("2000"));
+        assertEquals(200_000, Money.parse("+2000"));
+    }
+    
+    @Test
+    void parsesNegativeAndShortFraction() {
+        assertEquals(-1250, Money.parse("-12.5"));
+        assertEquals(-15_050, Money.parse("-150,50"));
+        assertEquals(5, Money.parse("0.05"));
+        assertEquals(1200, Money.parse("12."));
+    }
+    
+    @Test
+    void rejectsInvalidAmounts() {
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12a"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.234"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1-2"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("99999999999999999999"));
+    }
+    
+    @Test
+    void formatsKopecks() {
+        assertEquals("1234.56", Money.format(123_456));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("12.50", Money.format(1250));
+        assertEquals("1234.56 руб.", Money.formatRubles(-123_456));
+    }
+}